@@ -0,0 +1,151 @@
+package ru.practicum.shareit.benchmark;
+
+import org.h2.tools.Server;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Вставка бронирований по одной с чтением ключа (rowByRow, как до последовательностей) и пакетами saveAll
+// (batched). H2 по TCP, чтобы каждый запрос шел по сети
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BookingBulkInsertBenchmark {
+    private static final String INSERT = "insert into bookings (item_id, status, booker_id, start_date, end_date) " +
+            "values (?, ?, ?, ?, ?)";
+
+    @Param({"rowByRow", "batched"})
+    private String mode;
+    @Param({"20000"})
+    private int rows;
+
+    private Server server;
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private BookingRepository bookingRepository;
+    private Statistics statistics;
+    private User booker;
+    private Item item;
+    private LocalDateTime start = LocalDateTime.now().plusDays(1);
+    private List<Booking> bookings;
+
+    @Setup
+    public void setup() throws SQLException {
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        context = Servers.start("ci", "jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:booking-bulk-insert",
+                Servers.quiet("--spring.main.web-application-type=none",
+                        "--spring.jpa.properties.hibernate.generate_statistics=true"));
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        User owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@bulk.email")
+                .build());
+        booker = userRepository.save(User.builder()
+                .name("booker")
+                .email("booker@bulk.email")
+                .build());
+        item = context.getBean(ItemRepository.class).save(Item.builder()
+                .name("item")
+                .description("bulk item")
+                .available(true)
+                .owner(owner)
+                .build());
+    }
+
+    @Setup(Level.Iteration)
+    public void prepareIteration() {
+        statistics.clear();
+        if (mode.equals("batched")) {
+            bookings = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                bookings.add(Booking.builder()
+                        .item(item)
+                        .booker(booker)
+                        .status(BookingState.WAITING)
+                        .startDate(start.plusHours(i))
+                        .endDate(start.plusHours(i + 1))
+                        .build());
+            }
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void finishIteration() {
+        start = start.plusHours(rows);
+        if (mode.equals("batched")) {
+            System.out.println("Запросов: " + statistics.getPrepareStatementCount());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public void insert() {
+        if (mode.equals("batched")) {
+            transactionTemplate.executeWithoutResult(status -> bookingRepository.saveAll(bookings));
+        } else {
+            transactionTemplate.executeWithoutResult(status -> insertRowByRow());
+        }
+    }
+
+    private void insertRowByRow() {
+        for (int i = 0; i < rows; i++) {
+            Timestamp from = Timestamp.valueOf(start.plusHours(i));
+            Timestamp to = Timestamp.valueOf(start.plusHours(i + 1));
+            jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS);
+                statement.setLong(1, item.getId());
+                statement.setString(2, BookingState.WAITING.name());
+                statement.setLong(3, booker.getId());
+                statement.setTimestamp(4, from);
+                statement.setTimestamp(5, to);
+                return statement;
+            }, new GeneratedKeyHolder());
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.benchmark;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.constant.Constants;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// GET /items с open-in-view и без него; после итерации печатается, сколько запрос держал соединение пула
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConnectionHoldTimeBenchmark {
+    @Param({"true", "false"})
+    private boolean openInView;
+    @Param({"50"})
+    private int items;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest request;
+    private Timer usage;
+    private long requests;
+    private long usageCount;
+    private double usageMicros;
+
+    @Setup
+    public void setup() {
+        context = Servers.start("ci", Servers.memory("hold-" + openInView),
+                Servers.quiet("--spring.jpa.open-in-view=" + openInView));
+        User owner = seed();
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + Servers.port(context) + "/items?from=0&size=" + items))
+                .header(Constants.USER_HEADER, String.valueOf(owner.getId()))
+                .build();
+        usage = context.getBean(MeterRegistry.class).get("hikaricp.connections.usage").timer();
+    }
+
+    @Setup(Level.Iteration)
+    public void startIteration() {
+        requests = 0;
+        usageCount = usage.count();
+        usageMicros = usage.totalTime(TimeUnit.MICROSECONDS);
+    }
+
+    @TearDown(Level.Iteration)
+    public void finishIteration() {
+        if (requests > 0) {
+            System.out.printf("Соединение на запрос: %.0f мкс, берется %.2f раз%n",
+                    (usage.totalTime(TimeUnit.MICROSECONDS) - usageMicros) / requests,
+                    (double) (usage.count() - usageCount) / requests);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getAllOwn() throws IOException, InterruptedException {
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Ответ " + response.statusCode() + " на " + request.uri());
+        }
+        requests++;
+        return response.statusCode();
+    }
+
+    private User seed() {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        User owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@hold.email")
+                .build());
+        User booker = userRepository.save(User.builder()
+                .name("booker")
+                .email("booker@hold.email")
+                .build());
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < items; i++) {
+            Item item = itemRepository.save(Item.builder()
+                    .name("item " + i)
+                    .description("hold item")
+                    .available(true)
+                    .owner(owner)
+                    .build());
+            bookingRepository.save(Booking.builder()
+                    .item(item)
+                    .booker(booker)
+                    .status(BookingState.APPROVED)
+                    .startDate(now.minusDays(2))
+                    .endDate(now.minusDays(1))
+                    .build());
+        }
+        return owner;
+    }
+}
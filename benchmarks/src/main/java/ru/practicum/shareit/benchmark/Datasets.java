@@ -0,0 +1,109 @@
+package ru.practicum.shareit.benchmark;
+
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Синтетические данные для бенчмарков: id подряд с 1 и даты от фиксированного момента, наборы повторяются между запусками
+final class Datasets {
+    static final LocalDateTime NOW = LocalDateTime.of(2023, 6, 1, 12, 0);
+    static final long OWNER_ID = 1;
+
+    private Datasets() {
+    }
+
+    static User user(long id) {
+        return User.builder()
+                .id(id)
+                .name("user " + id)
+                .email("user" + id + "@benchmark.email")
+                .build();
+    }
+
+    static List<Item> items(int count, User owner) {
+        List<Item> items = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            items.add(Item.builder()
+                    .id(id)
+                    .name("item " + id)
+                    .description("description of item " + id)
+                    .available(true)
+                    .owner(owner)
+                    .build());
+        }
+        return items;
+    }
+
+    // По одному бронированию на вещь, в прошлом или в будущем относительно NOW
+    static List<Booking> bookings(List<Item> items, User booker, boolean past) {
+        List<Booking> bookings = new ArrayList<>(items.size());
+        for (Item item : items) {
+            LocalDateTime start = past ? NOW.minusDays(2) : NOW.plusDays(1);
+            bookings.add(Booking.builder()
+                    .id(item.getId() * 2 + (past ? 0 : 1))
+                    .item(item)
+                    .booker(booker)
+                    .status(BookingState.APPROVED)
+                    .startDate(start)
+                    .endDate(start.plusDays(1))
+                    .build());
+        }
+        return bookings;
+    }
+
+    static List<Comment> comments(List<Item> items, User author, int perItem) {
+        List<Comment> comments = new ArrayList<>(items.size() * perItem);
+        long id = 1;
+        for (Item item : items) {
+            for (int i = 0; i < perItem; i++) {
+                comments.add(Comment.builder()
+                        .id(id++)
+                        .item(item)
+                        .author(author)
+                        .text("comment " + i + " on item " + item.getId())
+                        .created(NOW.minusHours(i))
+                        .build());
+            }
+        }
+        return comments;
+    }
+
+    static List<ItemRequest> requests(int count, User requester) {
+        List<ItemRequest> requests = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            requests.add(ItemRequest.builder()
+                    .id(id)
+                    .description("request " + id)
+                    .requester(requester)
+                    .created(NOW.minusDays(id))
+                    .build());
+        }
+        return requests;
+    }
+
+    // На каждый запрос приходится itemsPerRequest вещей
+    static List<Item> itemsForRequests(List<ItemRequest> requests, int itemsPerRequest, User owner) {
+        List<Item> items = new ArrayList<>(requests.size() * itemsPerRequest);
+        long id = 1;
+        for (ItemRequest request : requests) {
+            for (int i = 0; i < itemsPerRequest; i++) {
+                items.add(Item.builder()
+                        .id(id++)
+                        .name("item for request " + request.getId())
+                        .description("offered item")
+                        .available(true)
+                        .owner(owner)
+                        .request(request)
+                        .build());
+            }
+        }
+        return items;
+    }
+}
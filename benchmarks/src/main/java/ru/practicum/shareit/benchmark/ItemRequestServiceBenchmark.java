@@ -0,0 +1,70 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.page.OffsetPage;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestMapper;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.request.ItemRequestServiceImpl;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Сборка ответа GET /requests/all без базы: группировка вещей по запросам и преобразование в DTO
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemRequestServiceBenchmark {
+    @Param({"10", "100", "1000"})
+    private int requests;
+    @Param({"5"})
+    private int itemsPerRequest;
+
+    private ItemRequestServiceImpl itemRequestService;
+    private OffsetPage page;
+
+    @Setup
+    public void setup() {
+        User requester = Datasets.user(Datasets.OWNER_ID + 1);
+        List<ItemRequest> itemRequests = Datasets.requests(requests, requester);
+        List<Item> items = Datasets.itemsForRequests(itemRequests, itemsPerRequest,
+                Datasets.user(Datasets.OWNER_ID));
+
+        itemRequestService = new ItemRequestServiceImpl(
+                Stubs.repository(ItemRequestRepository.class, Map.of(
+                        "findAllByRequesterIdIsNot", args -> itemRequests)),
+                Stubs.repository(UserRepository.class, Map.of(
+                        "existsById", args -> true)),
+                new ItemRequestMapper(),
+                Stubs.repository(ItemRepository.class, Map.of(
+                        "findAllByRequestsId", args -> items)),
+                new ItemMapper());
+        page = new OffsetPage(0, requests, Sort.by("created").descending());
+    }
+
+    @Benchmark
+    public List<ItemRequestDto> getAll() {
+        return itemRequestService.getAll(Datasets.OWNER_ID, page);
+    }
+}
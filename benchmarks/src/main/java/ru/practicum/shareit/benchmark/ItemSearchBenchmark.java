@@ -0,0 +1,106 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.page.OffsetPage;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Поиск в H2 до и после переноса фильтра доступности в начало условия (old, new) и через ItemRepository.search.
+// Доступна каждая двадцатая вещь, scanCount из explain analyze печатается при подготовке
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemSearchBenchmark {
+    private static final int AVAILABLE_EVERY = 20;
+    private static final String TEXT = "item 99999";
+    private static final Pattern SCAN_COUNT = Pattern.compile("scanCount: (\\d+)");
+    // Условие в том виде, в каком оно было до исправления: доступность относилась только к описанию
+    private static final String OLD_SEARCH = "select * from items i " +
+            "where upper(i.name) like upper('%" + TEXT + "%') " +
+            "   or upper(i.description) like upper('%" + TEXT + "%') and i.is_available = true " +
+            "order by i.item_id limit 10";
+    private static final String NEW_SEARCH = "select * from items i " +
+            "where i.is_available = true " +
+            "  and (upper(i.name) like upper('%" + TEXT + "%') " +
+            "   or upper(i.description) like upper('%" + TEXT + "%')) " +
+            "order by i.item_id limit 10";
+
+    @Param({"old", "new", "repository"})
+    private String query;
+    @Param({"1000000"})
+    private int items;
+
+    private ConfigurableApplicationContext context;
+    private Supplier<Object> search;
+
+    @Setup
+    public void setup() {
+        context = Servers.start("ci", Servers.memory("item-search-benchmark"), Servers.QUIET);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("insert into users (name, email) values ('owner', 'owner@benchmark.email')");
+        Long ownerId = jdbcTemplate.queryForObject("select max(user_id) from users", Long.class);
+        jdbcTemplate.update("insert into items (owner_id, name, description, is_available) " +
+                "select ?, concat('item ', x), concat('description ', x), mod(x, ?) = 0 " +
+                "from system_range(1, ?)", ownerId, AVAILABLE_EVERY, items);
+        // H2 не поддерживает частичные индексы; на Postgres это idx_items_available ... where is_available
+        jdbcTemplate.execute("create index if not exists idx_items_available on items (is_available)");
+        jdbcTemplate.execute("analyze");
+
+        switch (query) {
+            case "old":
+                printScannedRows(jdbcTemplate, OLD_SEARCH);
+                search = () -> jdbcTemplate.queryForList(OLD_SEARCH);
+                break;
+            case "new":
+                printScannedRows(jdbcTemplate, NEW_SEARCH);
+                search = () -> jdbcTemplate.queryForList(NEW_SEARCH);
+                break;
+            default:
+                ItemRepository itemRepository = context.getBean(ItemRepository.class);
+                OffsetPage page = new OffsetPage(0, 10, Sort.by("id"));
+                search = () -> itemRepository.search(TEXT, page);
+                break;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object search() {
+        return search.get();
+    }
+
+    private static void printScannedRows(JdbcTemplate jdbcTemplate, String sql) {
+        String plan = jdbcTemplate.queryForObject("explain analyze " + sql, String.class);
+        Matcher matcher = SCAN_COUNT.matcher(plan);
+        long rows = 0;
+        while (matcher.find()) {
+            rows += Long.parseLong(matcher.group(1));
+        }
+        System.out.println("Прочитано строк: " + rows);
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.item.CommentMapper;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSearchEngine;
+import ru.practicum.shareit.item.ItemServiceImpl;
+import ru.practicum.shareit.item.dto.ItemWithBookingsAndCommentsDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.page.OffsetPage;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserMapper;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Сборка ответов GET /items и GET /items/{id} без базы: репозитории возвращают заранее построенные списки
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemServiceBenchmark {
+    @Param({"10", "100", "1000"})
+    private int items;
+    @Param({"10"})
+    private int commentsPerItem;
+
+    private ItemServiceImpl itemService;
+    private OffsetPage page;
+
+    @Setup
+    public void setup() {
+        User owner = Datasets.user(Datasets.OWNER_ID);
+        User booker = Datasets.user(Datasets.OWNER_ID + 1);
+        List<Item> ownItems = Datasets.items(items, owner);
+        List<Booking> lastBookings = Datasets.bookings(ownItems, booker, true);
+        List<Booking> nextBookings = Datasets.bookings(ownItems, booker, false);
+        List<Booking> lastAndNextBookings = new ArrayList<>(lastBookings);
+        lastAndNextBookings.addAll(nextBookings);
+        List<Comment> comments = Datasets.comments(ownItems, booker, commentsPerItem);
+        List<Number> commentIds = comments.stream()
+                .map(Comment::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<Comment>> commentsByItem = comments.stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+
+        ItemRepository itemRepository = Stubs.repository(ItemRepository.class, Map.of(
+                "findAllByOwnerId", args -> ownItems,
+                "findById", args -> Optional.of(ownItems.get(0))));
+        BookingRepository bookingRepository = Stubs.repository(BookingRepository.class, Map.of(
+                "findLastAndNextByItemsIdAndStatus", args -> ((List<?>) args[0]).size() == 1
+                        ? List.of(lastBookings.get(0), nextBookings.get(0)) : lastAndNextBookings));
+        CommentRepository commentRepository = Stubs.repository(CommentRepository.class, Map.of(
+                "findLastIdsByItemsId", args -> commentIds,
+                "findAllByIds", args -> comments,
+                "findAllByItemId", args -> commentsByItem.get((Long) args[0])));
+        ItemMapper itemMapper = new ItemMapper();
+        UserMapper userMapper = new UserMapper();
+        itemService = new ItemServiceImpl(itemRepository, itemMapper,
+                Stubs.repository(UserRepository.class, Map.of()),
+                Stubs.repository(ItemRequestRepository.class, Map.of()),
+                bookingRepository, new BookingMapper(userMapper, itemMapper),
+                commentRepository, new CommentMapper(userMapper, itemMapper),
+                Stubs.repository(ItemSearchEngine.class, Map.of()));
+        page = new OffsetPage(0, items, Sort.by("id"));
+    }
+
+    @Benchmark
+    public List<ItemWithBookingsAndCommentsDto> getAll() {
+        return itemService.getAll(Datasets.OWNER_ID, page, commentsPerItem);
+    }
+
+    @Benchmark
+    public ItemWithBookingsAndCommentsDto getByOwner() {
+        return itemService.get(1, Datasets.OWNER_ID, commentsPerItem);
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.serializer.LocalDateTimeSerializer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Запись дат LocalDateTimeSerializer, как в списке бронирований; в пустой Writer, чтобы мерить только форматирование
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalDateTimeSerializerBenchmark {
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private final LocalDateTimeSerializer serializer = new LocalDateTimeSerializer();
+    private List<LocalDateTime> dates;
+    private SerializerProvider serializerProvider;
+    private JsonGenerator generator;
+
+    @Setup
+    public void setup() throws IOException {
+        dates = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            dates.add(Datasets.NOW.plusMinutes(i * 37L));
+        }
+        serializerProvider = new ObjectMapper().getSerializerProviderInstance();
+        generator = new JsonFactory().createGenerator(Writer.nullWriter());
+        generator.writeStartArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        generator.close();
+    }
+
+    @Benchmark
+    public void serialize() throws IOException {
+        for (LocalDateTime date : dates) {
+            serializer.serialize(date, generator, serializerProvider);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingView;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Преобразование списков сущностей и строк BookingView в DTO мапперами вещей и бронирований
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private ItemMapper itemMapper;
+    private BookingMapper bookingMapper;
+    private List<Item> items;
+    private List<Booking> bookings;
+    private List<BookingView> bookingViews;
+
+    @Setup
+    public void setup() {
+        User owner = Datasets.user(Datasets.OWNER_ID);
+        items = Datasets.items(size, owner);
+        bookings = Datasets.bookings(items, Datasets.user(Datasets.OWNER_ID + 1), false);
+        bookingViews = bookings.stream()
+                .map(booking -> new BookingView(booking.getId(), booking.getStartDate(), booking.getEndDate(),
+                        booking.getStatus(), booking.getItem().getId(), booking.getItem().getName(),
+                        booking.getItem().getDescription(), booking.getItem().getAvailable(), null,
+                        booking.getBooker().getId(), booking.getBooker().getName(), booking.getBooker().getEmail()))
+                .collect(Collectors.toList());
+        itemMapper = new ItemMapper();
+        bookingMapper = new BookingMapper(new UserMapper(), itemMapper);
+    }
+
+    @Benchmark
+    public List<ItemDto> convertListItem() {
+        return itemMapper.convertListItem(items);
+    }
+
+    @Benchmark
+    public void convertBooking(Blackhole blackhole) {
+        for (Booking booking : bookings) {
+            blackhole.consume(bookingMapper.convertBooking(booking));
+        }
+    }
+
+    @Benchmark
+    public void convertBookingView(Blackhole blackhole) {
+        for (BookingView booking : bookingViews) {
+            blackhole.consume(bookingMapper.convertBookingView(booking));
+        }
+    }
+
+    @Benchmark
+    public void convertBookingToShortDto(Blackhole blackhole) {
+        for (Booking booking : bookings) {
+            blackhole.consume(bookingMapper.convertBookingToShortDto(booking));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Сервер целиком на H2 со схемой профиля ci и случайным портом; у каждого бенчмарка своя база
+final class Servers {
+    // Без журналов контроллеров, иначе в измерение попадает запись журнала
+    static final String[] QUIET = {
+            "--logging.level.org.springframework=WARN",
+            "--logging.level.ru.practicum.shareit=WARN"
+    };
+
+    private Servers() {
+    }
+
+    // Аргументы переопределяют application.yml; один ключ дважды не передается, значения склеиваются
+    static ConfigurableApplicationContext start(String profiles, String url, String... args) {
+        return start(List.of(), profiles, url, args);
+    }
+
+    // sources добавляют к серверу конфигурации бенчмарка, которых нет в самом сервере
+    static ConfigurableApplicationContext start(List<Class<?>> sources, String profiles, String url,
+                                                String... args) {
+        List<String> arguments = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.profiles.active=" + profiles,
+                "--spring.datasource.url=" + url));
+        arguments.addAll(Arrays.asList(args));
+        return new SpringApplicationBuilder(ShareItServer.class)
+                .sources(sources.toArray(new Class<?>[0]))
+                .run(arguments.toArray(new String[0]));
+    }
+
+    static String memory(String database) {
+        return "jdbc:h2:mem:" + database;
+    }
+
+    // QUIET и дополнительные аргументы
+    static String[] quiet(String... args) {
+        List<String> arguments = new ArrayList<>(Arrays.asList(QUIET));
+        arguments.addAll(Arrays.asList(args));
+        return arguments.toArray(new String[0]);
+    }
+
+    static int port(ConfigurableApplicationContext context) {
+        return ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+    }
+}
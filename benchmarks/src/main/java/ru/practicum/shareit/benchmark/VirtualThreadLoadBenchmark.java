@@ -0,0 +1,125 @@
+package ru.practicum.shareit.benchmark;
+
+import org.apache.coyote.ProtocolHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import ru.practicum.shareit.constant.Constants;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// GET /items/{itemId} от 400 одновременных клиентов при пуле Tomcat в 200 потоков: пропускная способность и p99
+// на обычных и на виртуальных потоках. Сервер виртуальные потоки не включает, пока это сравнение не измерено
+// на Java 21; до тех пор исполнитель подключает сам бенчмарк (VirtualThreads)
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(400)
+@Fork(1)
+public class VirtualThreadLoadBenchmark {
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+    @Param({"100"})
+    private int items;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private final List<HttpRequest> requests = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        List<Class<?>> sources = virtualThreads ? List.of(VirtualThreads.class) : List.of();
+        context = Servers.start(sources, "ci", Servers.memory("load-" + virtualThreads), Servers.QUIET);
+        int port = Servers.port(context);
+        User owner = context.getBean(UserRepository.class).save(User.builder()
+                .name("owner")
+                .email("owner@load.email")
+                .build());
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        for (int i = 0; i < items; i++) {
+            Item item = itemRepository.save(Item.builder()
+                    .name("item " + i)
+                    .description("load item")
+                    .available(true)
+                    .owner(owner)
+                    .build());
+            requests.add(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/items/" + item.getId()))
+                    .header(Constants.USER_HEADER, String.valueOf(owner.getId()))
+                    .build());
+        }
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getItem(Client client) throws IOException, InterruptedException {
+        HttpRequest request = requests.get(Math.floorMod(client.next++, requests.size()));
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Ответ " + response.statusCode() + " на " + request.uri());
+        }
+        return response.statusCode();
+    }
+
+    // Каждый клиент идет по вещам со своего места, чтобы одновременные запросы не приходились на одну вещь
+    @State(Scope.Thread)
+    public static class Client {
+        private int next = (int) Thread.currentThread().getId();
+    }
+
+    // Без @Configuration, чтобы сканирование сервера не подхватило класс в других бенчмарках.
+    // Виртуальные потоки есть только с Java 21, а модули собираются под Java 11, поэтому через reflection
+    static class VirtualThreads {
+        @Bean(destroyMethod = "shutdown")
+        ExecutorService virtualThreadExecutor() {
+            try {
+                Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) factory.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Виртуальные потоки требуют Java 21 или новее, текущая версия "
+                        + Runtime.version(), e);
+            }
+        }
+
+        @Bean
+        TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer(
+                ExecutorService virtualThreadExecutor) {
+            return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+        }
+    }
+}
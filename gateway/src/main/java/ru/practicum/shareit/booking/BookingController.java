@@ -6,14 +6,20 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.constant.Constants;
 
+import javax.servlet.http.HttpServletResponse;
+import java.util.List;
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -21,50 +27,67 @@ import javax.validation.constraints.PositiveOrZero;
 @Slf4j
 @Validated
 public class BookingController {
+	private static final int MAX_BATCH_SIZE = 1000;
+	// <start date>,<booking id> as returned by the server in the X-Next-Cursor header
+	private static final String CURSOR_PATTERN = "\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}(:\\d{2}(\\.\\d+)?)?,\\d+";
+
 	private final BookingClient bookingClient;
+	private final ReactiveBookingClient reactiveBookingClient;
 
 	@GetMapping
-	public ResponseEntity<Object> getBookings(@RequestHeader(Constants.USER_HEADER) long userId,
+	public void getBookings(@RequestHeader(Constants.USER_HEADER) long userId,
 			@RequestParam(name = "state", defaultValue = "all") String stateParam,
 			@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-			@Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+			@Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+			@Pattern(regexp = CURSOR_PATTERN) @RequestParam(required = false) String after,
+			HttpServletResponse response) {
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-		log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-		return bookingClient.getBookings(userId, state, from, size);
+		log.info("Get booking with state {}, userId={}, from={}, size={}, after={}",
+				stateParam, userId, from, size, after);
+		bookingClient.getBookings(userId, state, from, size, after, response);
 	}
 
 	@PostMapping
-	public ResponseEntity<Object> bookItem(@RequestHeader(Constants.USER_HEADER) long userId,
+	public Mono<ResponseEntity<Object>> bookItem(@RequestHeader(Constants.USER_HEADER) long userId,
 			@RequestBody @Valid BookItemRequestDto requestDto) {
 		log.info("Creating booking {}, userId={}", requestDto, userId);
-		return bookingClient.bookItem(userId, requestDto);
+		return reactiveBookingClient.bookItem(userId, requestDto);
+	}
+
+	@PostMapping("/batch")
+	public Mono<ResponseEntity<Object>> bookItems(@RequestHeader(Constants.USER_HEADER) long userId,
+			@RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<@Valid BookItemRequestDto> requestDtos) {
+		log.info("Creating {} bookings, userId={}", requestDtos.size(), userId);
+		return reactiveBookingClient.bookItems(userId, requestDtos);
 	}
 
 	@GetMapping("/{bookingId}")
-	public ResponseEntity<Object> getBooking(@RequestHeader(Constants.USER_HEADER) long userId,
+	public Mono<ResponseEntity<Object>> getBooking(@RequestHeader(Constants.USER_HEADER) long userId,
 			@PathVariable Long bookingId) {
 		log.info("Get booking {}, userId={}", bookingId, userId);
-		return bookingClient.getBooking(userId, bookingId);
+		return reactiveBookingClient.getBooking(userId, bookingId);
 	}
 
 	@GetMapping("/owner")
-	public ResponseEntity<Object> getAllByOwner(@RequestHeader(Constants.USER_HEADER) long userId,
+	public void getAllByOwner(@RequestHeader(Constants.USER_HEADER) long userId,
 								   @RequestParam(name = "state", defaultValue = "all") String stateParam,
 								   @RequestParam(defaultValue = "0") @Min(0) int from,
-								   @RequestParam(defaultValue = "10") @Min(1) int size) {
+								   @RequestParam(defaultValue = "10") @Min(1) int size,
+								   @Pattern(regexp = CURSOR_PATTERN) @RequestParam(required = false) String after,
+								   HttpServletResponse response) {
 		BookingState state = BookingState.from(stateParam)
 				.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-		log.info("Get booking for item owner with state {}, userId={}, from={}, size={}",
-				userId, stateParam, from, size);
-		return bookingClient.getAllForOwner(userId, state, from, size);
+		log.info("Get booking for item owner with state {}, userId={}, from={}, size={}, after={}",
+				userId, stateParam, from, size, after);
+		bookingClient.getAllForOwner(userId, state, from, size, after, response);
 	}
 
 	@PatchMapping("/{bookingId}")
-	public ResponseEntity<Object> confirmReject(@RequestHeader(Constants.USER_HEADER) long userId,
+	public Mono<ResponseEntity<Object>> confirmReject(@RequestHeader(Constants.USER_HEADER) long userId,
 									@PathVariable long bookingId, @RequestParam String approved) {
 		log.info("Change state of booking with id {} by user with id {} to {}",
 				bookingId, userId, approved);
-		return bookingClient.confirmReject(userId, bookingId, approved);
+		return reactiveBookingClient.confirmReject(userId, bookingId, approved);
 	}
 }
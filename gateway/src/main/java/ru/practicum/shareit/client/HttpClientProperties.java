@@ -0,0 +1,22 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Connection pool and timeouts of the WebClient calling the ShareIt server
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.http")
+public class HttpClientProperties {
+    // Maximum number of open connections to the server
+    private int maxTotal = 200;
+    // How long to wait for a connection from the pool when all of them are leased
+    private Duration connectionRequestTimeout = Duration.ofSeconds(2);
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(10);
+    // Idle connections are closed by a background task after this period
+    private Duration idleTimeout = Duration.ofSeconds(30);
+}
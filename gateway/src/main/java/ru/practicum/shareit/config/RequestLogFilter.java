@@ -0,0 +1,87 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// One key=value log line for a sample of requests plus every slow one and every server error.
+// Requests answered with a Mono are logged when the async response completes
+@Slf4j
+@Component
+public class RequestLogFilter extends OncePerRequestFilter {
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+
+    public RequestLogFilter(@Value("${shareit.request-log.sample-rate:1.0}") double sampleRate,
+                            @Value("${shareit.request-log.slow-threshold:1s}") String slowThreshold) {
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = DurationStyle.detectAndParse(slowThreshold).toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long started = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new CompletionListener(request, response, started));
+            } else {
+                completed(request, response.getStatus(), started);
+            }
+        }
+    }
+
+    private void completed(HttpServletRequest request, int status, long started) {
+        if (!log.isInfoEnabled()) {
+            return;
+        }
+        long elapsed = System.nanoTime() - started;
+        if (status >= 500 || elapsed >= slowThresholdNanos || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            log.info("request method={} uri={} status={} duration_ms={}", request.getMethod(),
+                    request.getRequestURI(), status, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+    }
+
+    private class CompletionListener implements AsyncListener {
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final long started;
+
+        CompletionListener(HttpServletRequest request, HttpServletResponse response, long started) {
+            this.request = request;
+            this.response = response;
+            this.started = started;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            completed(request, response.getStatus(), started);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
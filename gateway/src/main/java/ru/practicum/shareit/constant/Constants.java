@@ -2,4 +2,7 @@ package ru.practicum.shareit.constant;
 
 public final class Constants {
     public static final String USER_HEADER = "X-Sharer-User-Id";
+    public static final int MAX_COMMENTS_LIMIT = 100;
+    // Without commentsLimit all comments are returned, up to MAX_COMMENTS_LIMIT
+    public static final String DEFAULT_COMMENTS_LIMIT = "" + MAX_COMMENTS_LIMIT;
 }
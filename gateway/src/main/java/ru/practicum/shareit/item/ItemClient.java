@@ -2,15 +2,12 @@ package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
 import ru.practicum.shareit.client.BaseClient;
-import ru.practicum.shareit.item.dto.CommentCreateDto;
-import ru.practicum.shareit.item.dto.ItemDto;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.Map;
 
 @Service
@@ -18,45 +15,33 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build());
     }
 
-    public ResponseEntity<Object> get(long itemId, long userId) {
-        return get("/" + itemId, userId);
+    public void getAllOwn(long userId, int from, int size, int commentsLimit, HttpServletResponse response) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size,
+                "commentsLimit", commentsLimit
+        );
+        stream("?from={from}&size={size}&commentsLimit={commentsLimit}", userId, parameters, response);
     }
 
-    public ResponseEntity<Object> getAllOwn(long userId, int from, int size) {
+    public void getComments(long itemId, int from, int size, HttpServletResponse response) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get("?from={from}&size={size}", userId, parameters);
+        stream("/" + itemId + "/comments?from={from}&size={size}", null, parameters, response);
     }
 
-    public ResponseEntity<Object> search(String text, int from, int size) {
+    public ResponseEntity<byte[]> search(String text, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", null, parameters);
-    }
-
-    public ResponseEntity<Object> create(ItemDto itemDto, long userId) {
-        return post("", userId, itemDto);
-    }
-
-    public ResponseEntity<Object> update(ItemDto itemDto, long userId, long itemId) {
-        return patch("/" + itemId, userId, itemDto);
-    }
-
-    public ResponseEntity<Object> comment(CommentCreateDto commentCreateDto, long userId, long itemId) {
-        return post("/" + itemId + "/comment", userId, commentCreateDto);
+        return getBytes("/search?text={text}&from={from}&size={size}", null, parameters);
     }
 }
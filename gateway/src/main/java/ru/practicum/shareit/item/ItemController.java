@@ -5,11 +5,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.constant.Constants;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 
 @RestController
@@ -18,57 +21,85 @@ import javax.validation.constraints.Min;
 @Validated
 public class ItemController {
     private final ItemClient itemClient;
+    private final ReactiveItemClient reactiveItemClient;
+    private final ItemSearchCache itemSearchCache;
 
     @Autowired
-    public ItemController(ItemClient itemClient) {
+    public ItemController(ItemClient itemClient, ReactiveItemClient reactiveItemClient,
+                          ItemSearchCache itemSearchCache) {
         this.itemClient = itemClient;
+        this.reactiveItemClient = reactiveItemClient;
+        this.itemSearchCache = itemSearchCache;
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> get(@PathVariable long itemId,
-                              @RequestHeader(Constants.USER_HEADER) long userId) {
+    public Mono<ResponseEntity<Object>> get(@PathVariable long itemId,
+                              @RequestHeader(Constants.USER_HEADER) long userId,
+                              @RequestParam(defaultValue = Constants.DEFAULT_COMMENTS_LIMIT)
+                              @Min(0) @Max(Constants.MAX_COMMENTS_LIMIT) int commentsLimit) {
         log.info("Get item with id {} from user with id {}", itemId, userId);
-        return itemClient.get(itemId, userId);
+        return reactiveItemClient.get(itemId, userId, commentsLimit);
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public void getComments(@PathVariable long itemId,
+                            @RequestParam(defaultValue = "0") @Min(0) int from,
+                            @RequestParam(defaultValue = "10") @Min(1) int size,
+                            HttpServletResponse response) {
+        log.info("Get comments to item with id {}, beginning from {}, by {} comments on page", itemId, from, size);
+        itemClient.getComments(itemId, from, size, response);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllOwn(@RequestHeader(Constants.USER_HEADER) long userId,
-                                                          @RequestParam(defaultValue = "0") @Min(0) int from,
-                                                          @RequestParam(defaultValue = "10") @Min(1) int size) {
+    public void getAllOwn(@RequestHeader(Constants.USER_HEADER) long userId,
+                          @RequestParam(defaultValue = "0") @Min(0) int from,
+                          @RequestParam(defaultValue = "10") @Min(1) int size,
+                          @RequestParam(defaultValue = Constants.DEFAULT_COMMENTS_LIMIT)
+                          @Min(0) @Max(Constants.MAX_COMMENTS_LIMIT) int commentsLimit,
+                          HttpServletResponse response) {
         log.info("Get list of items owned by user with с id {}," +
                 " beginning from {}, by {} items on page", userId, from, size);
-        return itemClient.getAllOwn(userId, from, size);
+        itemClient.getAllOwn(userId, from, size, commentsLimit, response);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> search(@RequestParam String text,
-                                @RequestParam(defaultValue = "0") @Min(0) int from,
-                                @RequestParam(defaultValue = "10") @Min(1) int size) {
+    public ResponseEntity<byte[]> search(@RequestParam String text,
+                                         @RequestParam(defaultValue = "0") @Min(0) int from,
+                                         @RequestParam(defaultValue = "10") @Min(1) int size) {
         log.info("Search items by text {}," +
                 " beginning from {}, by {} items on page", text, from, size);
-        return itemClient.search(text, from, size);
+        return itemSearchCache.get(text, from, size, () -> itemClient.search(text, from, size));
     }
 
     @PostMapping
-    public ResponseEntity<Object> create(@Valid @RequestBody ItemDto itemDto,
+    public Mono<ResponseEntity<Object>> create(@Valid @RequestBody ItemDto itemDto,
                           @RequestHeader(Constants.USER_HEADER) long userId) {
         log.info("Create item {} by user with id {}", itemDto, userId);
-        return itemClient.create(itemDto, userId);
+        return reactiveItemClient.create(itemDto, userId)
+                .doOnNext(this::invalidateSearchOnSuccess);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> update(@RequestBody ItemDto itemDto,
+    public Mono<ResponseEntity<Object>> update(@RequestBody ItemDto itemDto,
                           @RequestHeader(Constants.USER_HEADER) long userId,
                           @PathVariable long itemId) {
         log.info("Update item {} by user with id {}", itemDto, userId);
-        return itemClient.update(itemDto, userId, itemId);
+        return reactiveItemClient.update(itemDto, userId, itemId)
+                .doOnNext(this::invalidateSearchOnSuccess);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> comment(@Valid @RequestBody CommentCreateDto commentCreateDto,
+    public Mono<ResponseEntity<Object>> comment(@Valid @RequestBody CommentCreateDto commentCreateDto,
                               @RequestHeader(Constants.USER_HEADER) long userId,
                               @PathVariable long itemId) {
         log.info("Comment to item with id {} by user with id {}", itemId, userId);
-        return itemClient.comment(commentCreateDto, userId, itemId);
+        return reactiveItemClient.comment(commentCreateDto, userId, itemId);
+    }
+
+    // A new or changed item can appear in any cached search result
+    private void invalidateSearchOnSuccess(ResponseEntity<Object> response) {
+        if (response.getStatusCode().is2xxSuccessful()) {
+            itemSearchCache.invalidateAll();
+        }
     }
 }
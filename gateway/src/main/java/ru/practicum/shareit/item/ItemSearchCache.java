@@ -0,0 +1,88 @@
+package ru.practicum.shareit.item;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+// Search responses are the same for every user, so they are kept by (text, from, size) for the TTL
+// of shareit.search-cache.spec. Item changes made through this gateway drop the whole cache; changes made
+// through other gateway instances are seen here only after the entries expire
+@Component
+public class ItemSearchCache {
+    private final AsyncCache<Key, ResponseEntity<byte[]>> cache;
+
+    @Autowired
+    public ItemSearchCache(
+            @Value("${shareit.search-cache.spec:maximumSize=1000,expireAfterWrite=30s,recordStats}") String spec,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        cache = Caffeine.from(spec).buildAsync();
+        meterRegistry.ifAvailable(registry ->
+                CaffeineCacheMetrics.monitor(registry, cache.synchronous(), "itemSearch"));
+    }
+
+    // Concurrent identical queries wait for the first one and get its response, even an error
+    public ResponseEntity<byte[]> get(String text, int from, int size, Supplier<ResponseEntity<byte[]>> loader) {
+        Key key = new Key(normalize(text), from, size);
+        CompletableFuture<ResponseEntity<byte[]>> loading = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<byte[]>> response = cache.get(key, (k, executor) -> loading);
+        if (response == loading) {
+            load(key, loading, loader);
+        }
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    private void load(Key key, CompletableFuture<ResponseEntity<byte[]>> loading,
+                      Supplier<ResponseEntity<byte[]>> loader) {
+        ResponseEntity<byte[]> loaded;
+        try {
+            loaded = loader.get();
+        } catch (RuntimeException e) {
+            cache.asMap().remove(key, loading);
+            loading.completeExceptionally(e);
+            return;
+        }
+        if (loaded.getStatusCode().is2xxSuccessful()) {
+            // Only the body and its type are kept, connection headers of the server response are not
+            loading.complete(ResponseEntity.status(loaded.getStatusCode())
+                    .contentType(loaded.getHeaders().getContentType())
+                    .body(loaded.getBody()));
+        } else {
+            // Waiting callers get this error too, later ones call the server again
+            cache.asMap().remove(key, loading);
+            loading.complete(loaded);
+        }
+    }
+
+    private static String normalize(String text) {
+        return text.isBlank() ? "" : text.toUpperCase(Locale.ROOT);
+    }
+
+    @lombok.Value
+    private static class Key {
+        String text;
+        int from;
+        int size;
+    }
+}
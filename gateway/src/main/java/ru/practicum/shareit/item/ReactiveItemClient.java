@@ -0,0 +1,42 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.item.dto.CommentCreateDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.Map;
+
+@Service
+public class ReactiveItemClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/items";
+
+    @Autowired
+    public ReactiveItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build());
+    }
+
+    public Mono<ResponseEntity<Object>> get(long itemId, long userId, int commentsLimit) {
+        Map<String, Object> parameters = Map.of(
+                "commentsLimit", commentsLimit
+        );
+        return get("/" + itemId + "?commentsLimit={commentsLimit}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> create(ItemDto itemDto, long userId) {
+        return post("", userId, itemDto);
+    }
+
+    public Mono<ResponseEntity<Object>> update(ItemDto itemDto, long userId, long itemId) {
+        return patch("/" + itemId, userId, itemDto);
+    }
+
+    public Mono<ResponseEntity<Object>> comment(CommentCreateDto commentCreateDto, long userId, long itemId) {
+        return post("/" + itemId + "/comment", userId, commentCreateDto);
+    }
+}
@@ -2,14 +2,11 @@ package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
 import ru.practicum.shareit.client.BaseClient;
-import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.Map;
 
 @Service
@@ -17,32 +14,19 @@ public class RequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
-    }
-
-    public ResponseEntity<Object> get(long userId, long requestId) {
-        return get("/" + requestId, userId);
-    }
-
-    public ResponseEntity<Object> create(ItemRequestCreateDto itemRequestCreateDto, long userId) {
-        return post("", userId, itemRequestCreateDto);
+    public RequestClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build());
     }
 
-    public ResponseEntity<Object> getAllOwn(long userId) {
-        return get("", userId);
+    public void getAllOwn(long userId, HttpServletResponse response) {
+        stream("", userId, response);
     }
 
-    public ResponseEntity<Object> getAll(long userId, int from, int size) {
+    public void getAll(long userId, int from, int size, HttpServletResponse response) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
-        return get("/all?from={from}&size={size}", userId, parameters);
+        stream("/all?from={from}&size={size}", userId, parameters, response);
     }
 }
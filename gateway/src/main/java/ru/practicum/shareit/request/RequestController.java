@@ -5,9 +5,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.constant.Constants;
 import ru.practicum.shareit.request.dto.ItemRequestCreateDto;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
 
@@ -17,38 +19,41 @@ import javax.validation.constraints.Min;
 @Validated
 public class RequestController {
     private final RequestClient requestClient;
+    private final ReactiveRequestClient reactiveRequestClient;
 
     @Autowired
-    public RequestController(RequestClient requestClient) {
+    public RequestController(RequestClient requestClient, ReactiveRequestClient reactiveRequestClient) {
         this.requestClient = requestClient;
+        this.reactiveRequestClient = reactiveRequestClient;
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> get(@RequestHeader(Constants.USER_HEADER) long userId,
+    public Mono<ResponseEntity<Object>> get(@RequestHeader(Constants.USER_HEADER) long userId,
                               @PathVariable long requestId) {
         log.info("Get request with {} by user with id {}", requestId, userId);
-        return requestClient.get(userId, requestId);
+        return reactiveRequestClient.get(userId, requestId);
     }
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader(Constants.USER_HEADER) long userId,
+    public Mono<ResponseEntity<Object>> create(@RequestHeader(Constants.USER_HEADER) long userId,
                                  @Valid @RequestBody ItemRequestCreateDto requestCreateDto) {
         log.info("Create request {} by user with id {}", requestCreateDto, userId);
-        return requestClient.create(requestCreateDto, userId);
+        return reactiveRequestClient.create(requestCreateDto, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllOwn(@RequestHeader(Constants.USER_HEADER) long userId) {
+    public void getAllOwn(@RequestHeader(Constants.USER_HEADER) long userId, HttpServletResponse response) {
         log.info("Get requests of user with id {}", userId);
-        return requestClient.getAllOwn(userId);
+        requestClient.getAllOwn(userId, response);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAll(@RequestHeader(Constants.USER_HEADER) long userId,
-                                       @RequestParam(defaultValue = "0") @Min(0) int from,
-                                       @RequestParam(defaultValue = "10") @Min(1) int size) {
+    public void getAll(@RequestHeader(Constants.USER_HEADER) long userId,
+                       @RequestParam(defaultValue = "0") @Min(0) int from,
+                       @RequestParam(defaultValue = "10") @Min(1) int size,
+                       HttpServletResponse response) {
         log.info("Get all requests starting from {}," +
                 " by {} item per page for user with id {}", from, size, userId);
-        return requestClient.getAll(userId, from, size);
+        requestClient.getAll(userId, from, size, response);
     }
 }
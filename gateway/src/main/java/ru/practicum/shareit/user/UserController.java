@@ -5,9 +5,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 
 @RestController
@@ -16,40 +18,42 @@ import javax.validation.Valid;
 @Validated
 public class UserController {
     private final UserClient userClient;
+    private final ReactiveUserClient reactiveUserClient;
 
     @Autowired
-    public UserController(UserClient userClient) {
+    public UserController(UserClient userClient, ReactiveUserClient reactiveUserClient) {
         this.userClient = userClient;
+        this.reactiveUserClient = reactiveUserClient;
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAll() {
+    public void getAll(HttpServletResponse response) {
         log.info("Get all users");
-        return userClient.getAll();
+        userClient.getAll(response);
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> get(@PathVariable long userId) {
+    public Mono<ResponseEntity<Object>> get(@PathVariable long userId) {
         log.info("Get user with id {}", userId);
-        return userClient.get(userId);
+        return reactiveUserClient.get(userId);
     }
 
     @PostMapping
-    public ResponseEntity<Object> create(@Valid @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> create(@Valid @RequestBody UserDto userDto) {
         log.info("Create user {}", userDto);
-        return userClient.create(userDto);
+        return reactiveUserClient.create(userDto);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> update(@Valid @RequestBody UserUpdateDto userUpdateDto,
+    public Mono<ResponseEntity<Object>> update(@Valid @RequestBody UserUpdateDto userUpdateDto,
                                          @PathVariable long userId) {
         log.info("Update user {} with id {}", userUpdateDto, userId);
-        return userClient.update(userUpdateDto, userId);
+        return reactiveUserClient.update(userUpdateDto, userId);
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> delete(@PathVariable long userId) {
+    public Mono<ResponseEntity<Object>> delete(@PathVariable long userId) {
         log.info("Delete user with id {}", userId);
-        return userClient.delete(userId);
+        return reactiveUserClient.delete(userId);
     }
 }
@@ -17,6 +17,7 @@ import javax.validation.ConstraintViolationException;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.mockito.ArgumentMatchers.*;
@@ -34,6 +35,8 @@ public class BookingControllerTest {
     private MockMvc mvc;
     @MockBean
     private BookingClient bookingClient;
+    @MockBean
+    private ReactiveBookingClient reactiveBookingClient;
 
     private BookItemRequestDto wrongBookingCreateDto;
 
@@ -57,7 +60,7 @@ public class BookingControllerTest {
                 .andExpect(result -> assertInstanceOf(IllegalArgumentException.class,
                         result.getResolvedException()));
         verify(bookingClient, never())
-                .getBookings(anyLong(), any(BookingState.class), anyInt(), anyInt());
+                .getBookings(anyLong(), any(BookingState.class), anyInt(), anyInt(), any(), any());
     }
 
     @Test
@@ -71,7 +74,33 @@ public class BookingControllerTest {
                 .andExpect(result -> assertInstanceOf(ConstraintViolationException.class,
                         result.getResolvedException()));
         verify(bookingClient, never())
-                .getAllForOwner(anyLong(), any(BookingState.class), anyInt(), anyInt());
+                .getAllForOwner(anyLong(), any(BookingState.class), anyInt(), anyInt(), any(), any());
+    }
+
+    @Test
+    void getAll_whenMalformedCursor_thenThrownException() throws Exception {
+        mvc.perform(get("/bookings?state=WAITING&size=10&after=yesterday")
+                        .header(Constants.USER_HEADER, 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is5xxServerError())
+                .andExpect(result -> assertInstanceOf(ConstraintViolationException.class,
+                        result.getResolvedException()));
+        verify(bookingClient, never())
+                .getBookings(anyLong(), any(BookingState.class), anyInt(), anyInt(), any(), any());
+    }
+
+    @Test
+    void getAll_whenCursorGiven_thenPassedToClient() throws Exception {
+        mvc.perform(get("/bookings?state=WAITING&size=10&after=2023-01-01T10:00:00,15")
+                        .header(Constants.USER_HEADER, 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        verify(bookingClient)
+                .getBookings(eq(1L), eq(BookingState.WAITING), eq(0), eq(10), eq("2023-01-01T10:00:00,15"), any());
     }
 
     @Test
@@ -86,6 +115,41 @@ public class BookingControllerTest {
                 .andExpect(result -> assertInstanceOf(MethodArgumentNotValidException.class,
                         result.getResolvedException()));
 
-        verify(bookingClient, never()).bookItem(anyLong(), any(BookItemRequestDto.class));
+        verify(reactiveBookingClient, never()).bookItem(anyLong(), any(BookItemRequestDto.class));
+    }
+
+    @Test
+    void createAll_whenOneStartLaterThanEnd_thenThrownException() throws Exception {
+        BookItemRequestDto bookingCreateDto = new BookItemRequestDto(
+                1L,
+                LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS),
+                LocalDateTime.now().plusDays(2).truncatedTo(ChronoUnit.SECONDS));
+
+        mvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(List.of(bookingCreateDto, wrongBookingCreateDto)))
+                        .header(Constants.USER_HEADER, 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is5xxServerError())
+                .andExpect(result -> assertInstanceOf(ConstraintViolationException.class,
+                        result.getResolvedException()));
+
+        verify(reactiveBookingClient, never()).bookItems(anyLong(), anyList());
+    }
+
+    @Test
+    void createAll_whenEmpty_thenThrownException() throws Exception {
+        mvc.perform(post("/bookings/batch")
+                        .content("[]")
+                        .header(Constants.USER_HEADER, 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is5xxServerError())
+                .andExpect(result -> assertInstanceOf(ConstraintViolationException.class,
+                        result.getResolvedException()));
+
+        verify(reactiveBookingClient, never()).bookItems(anyLong(), anyList());
     }
 }
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class BaseClientTest {
+    private static final String ITEMS = "[{\"id\":1,\"name\":\"item\"},{\"id\":2,\"name\":\"other item\"}]";
+
+    private final AtomicReference<ClientRequest> sentRequest = new AtomicReference<>();
+
+    @Test
+    void stream_whenServerRespondsOk_thenBodyAndHeadersCopiedAsIs() throws Exception {
+        StreamingClient client = clientRespondingWith(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header("X-Next-Cursor", "2023-01-01T10:00,15")
+                .header(HttpHeaders.TRANSFER_ENCODING, "chunked")
+                .body(ITEMS)
+                .build());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        client.stream("/search?text={text}&size={size}", 1L, Map.of("text", "item", "size", 2), response);
+
+        assertThat(HttpMethod.GET, is(sentRequest.get().method()));
+        assertThat("http://localhost:9090/items/search?text=item&size=2", is(sentRequest.get().url().toString()));
+        assertThat("1", is(sentRequest.get().headers().getFirst("X-Sharer-User-Id")));
+        assertThat(200, is(response.getStatus()));
+        assertThat(ITEMS, is(response.getContentAsString()));
+        assertThat(MediaType.APPLICATION_JSON_VALUE, is(response.getContentType()));
+        assertThat("2023-01-01T10:00,15", is(response.getHeader("X-Next-Cursor")));
+        assertThat(response.getHeader(HttpHeaders.TRANSFER_ENCODING), is(nullValue()));
+    }
+
+    @Test
+    void stream_whenServerRespondsWithError_thenStatusAndBodyPassedThrough() throws Exception {
+        String error = "{\"error\":\"Пользователя с id 99 не существует\"}";
+        StreamingClient client = clientRespondingWith(ClientResponse.create(HttpStatus.NOT_FOUND)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(error)
+                .build());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setCharacterEncoding("UTF-8");
+
+        client.stream("", 99L, response);
+
+        assertThat("http://localhost:9090/items", is(sentRequest.get().url().toString()));
+        assertThat(404, is(response.getStatus()));
+        assertThat(error, is(response.getContentAsString()));
+    }
+
+    @Test
+    void getBytes_whenServerRespondsWithError_thenStatusAndRawBodyReturned() {
+        String error = "{\"error\":\"Неверный текст\"}";
+        StreamingClient client = clientRespondingWith(ClientResponse.create(HttpStatus.BAD_REQUEST)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(error)
+                .build());
+
+        ResponseEntity<byte[]> response = client.getBytes("/search?text={text}", null, Map.of("text", "item"));
+
+        assertThat(sentRequest.get().headers().containsKey("X-Sharer-User-Id"), is(false));
+        assertThat(HttpStatus.BAD_REQUEST, is(response.getStatusCode()));
+        assertThat(MediaType.APPLICATION_JSON, is(response.getHeaders().getContentType()));
+        assertThat(error, is(new String(response.getBody(), StandardCharsets.UTF_8)));
+    }
+
+    private StreamingClient clientRespondingWith(ClientResponse response) {
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://localhost:9090/items")
+                .exchangeFunction(request -> {
+                    sentRequest.set(request);
+                    return Mono.just(response);
+                })
+                .build();
+        return new StreamingClient(webClient);
+    }
+
+    private static class StreamingClient extends BaseClient {
+        StreamingClient(WebClient webClient) {
+            super(webClient);
+        }
+    }
+}
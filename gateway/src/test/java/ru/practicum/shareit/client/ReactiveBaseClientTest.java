@@ -0,0 +1,85 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class ReactiveBaseClientTest {
+    private final AtomicReference<ClientRequest> sentRequest = new AtomicReference<>();
+
+    @Test
+    void get_whenServerRespondsOk_thenBodyParsedAndHeadersKept() {
+        ReactiveClient client = clientRespondingWith(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header("X-Next-Cursor", "2023-01-01T10:00,15")
+                .body("{\"id\":1,\"name\":\"item\"}")
+                .build());
+
+        ResponseEntity<Object> response = client.get("/{id}?commentsLimit={limit}", 1L, Map.of("id", 7, "limit", 2))
+                .block();
+
+        assertThat(HttpMethod.GET, is(sentRequest.get().method()));
+        assertThat("http://localhost:9090/items/7?commentsLimit=2", is(sentRequest.get().url().toString()));
+        assertThat("1", is(sentRequest.get().headers().getFirst("X-Sharer-User-Id")));
+        assertThat(HttpStatus.OK, is(response.getStatusCode()));
+        assertThat(Map.of("id", 1, "name", "item"), is(response.getBody()));
+        assertThat("2023-01-01T10:00,15", is(response.getHeaders().getFirst("X-Next-Cursor")));
+    }
+
+    @Test
+    void post_whenServerRespondsWithError_thenStatusAndRawBodyReturned() {
+        String error = "{\"error\":\"Вещь недоступна\"}";
+        ReactiveClient client = clientRespondingWith(ClientResponse.create(HttpStatus.BAD_REQUEST)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(error)
+                .build());
+
+        ResponseEntity<Object> response = client.post("", 1L, Map.of("itemId", 1)).block();
+
+        assertThat(HttpMethod.POST, is(sentRequest.get().method()));
+        assertThat(HttpStatus.BAD_REQUEST, is(response.getStatusCode()));
+        assertThat(error, is(new String((byte[]) response.getBody(), StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void delete_whenServerRespondsWithEmptyError_thenStatusReturned() {
+        ReactiveClient client = clientRespondingWith(ClientResponse.create(HttpStatus.NOT_FOUND).build());
+
+        ResponseEntity<Object> response = client.delete("/1").block();
+
+        assertThat(HttpMethod.DELETE, is(sentRequest.get().method()));
+        assertThat(HttpStatus.NOT_FOUND, is(response.getStatusCode()));
+        assertThat(response.hasBody(), is(false));
+    }
+
+    private ReactiveClient clientRespondingWith(ClientResponse response) {
+        WebClient webClient = WebClient.builder()
+                .baseUrl("http://localhost:9090/items")
+                .exchangeFunction(request -> {
+                    sentRequest.set(request);
+                    return Mono.just(response);
+                })
+                .build();
+        return new ReactiveClient(webClient);
+    }
+
+    private static class ReactiveClient extends ReactiveBaseClient {
+        ReactiveClient(WebClient webClient) {
+            super(webClient);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import reactor.netty.resources.ConnectionProvider;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+@SpringBootTest(properties = "shareit-server.http.max-total=50")
+public class WebClientConfigTest {
+    @Autowired
+    private ConnectionProvider shareItServerConnectionProvider;
+
+    @Test
+    void connectionProvider_whenPropertiesSet_thenPoolLimitApplied() {
+        assertThat(50, is(shareItServerConnectionProvider.maxConnections()));
+    }
+}
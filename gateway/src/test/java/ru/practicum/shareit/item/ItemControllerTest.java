@@ -6,8 +6,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.constant.Constants;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -16,12 +20,18 @@ import java.nio.charset.StandardCharsets;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemController.class)
+@Import(ItemSearchCache.class)
 public class ItemControllerTest {
     @Autowired
     private ObjectMapper mapper;
@@ -29,6 +39,10 @@ public class ItemControllerTest {
     private MockMvc mvc;
     @MockBean
     private ItemClient itemClient;
+    @MockBean
+    private ReactiveItemClient reactiveItemClient;
+    @Autowired
+    private ItemSearchCache itemSearchCache;
 
     private CommentCreateDto wrongCommentCreateDto;
     private ItemDto wrongItemDto;
@@ -37,6 +51,7 @@ public class ItemControllerTest {
     void setup() {
         wrongCommentCreateDto = new CommentCreateDto();
         wrongItemDto = new ItemDto();
+        itemSearchCache.invalidateAll();
     }
 
     @Test
@@ -54,6 +69,94 @@ public class ItemControllerTest {
         verify(itemClient, never()).search(anyString(), anyInt(), anyInt());
     }
 
+    @Test
+    void search_whenRepeatedInOtherCase_thenServerCalledOnce() throws Exception {
+        String items = "[{\"id\":1,\"name\":\"Drill\"}]";
+        when(itemClient.search(anyString(), anyInt(), anyInt()))
+                .thenReturn(ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(items.getBytes()));
+
+        for (String text : new String[]{"drill", "DRILL"}) {
+            mvc.perform(get("/items/search?text=" + text + "&from=0&size=10")
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(content().json(items));
+        }
+
+        verify(itemClient, times(1)).search(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void search_whenItemCreatedBetweenSearches_thenServerCalledAgain() throws Exception {
+        ItemDto itemDto = new ItemDto("Drill", "Cordless drill", true, null);
+        when(itemClient.search(anyString(), anyInt(), anyInt()))
+                .thenReturn(ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body("[]".getBytes()));
+        when(reactiveItemClient.create(any(ItemDto.class), anyLong()))
+                .thenReturn(Mono.just(ResponseEntity.ok(itemDto)));
+
+        mvc.perform(get("/items/search?text=drill")).andExpect(status().isOk());
+        MvcResult created = mvc.perform(post("/items")
+                        .content(mapper.writeValueAsString(itemDto))
+                        .header(Constants.USER_HEADER, 1)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(created)).andExpect(status().isOk());
+        mvc.perform(get("/items/search?text=drill")).andExpect(status().isOk());
+
+        verify(itemClient, times(2)).search(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void get_whenCommentsLimitMissing_thenMaxLimitPassed() throws Exception {
+        when(reactiveItemClient.get(1L, 1L, Constants.MAX_COMMENTS_LIMIT))
+                .thenReturn(Mono.just(ResponseEntity.ok("{}")));
+
+        MvcResult result = mvc.perform(get("/items/" + 1)
+                        .header(Constants.USER_HEADER, 1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+        verify(reactiveItemClient, times(1)).get(1L, 1L, Constants.MAX_COMMENTS_LIMIT);
+    }
+
+    @Test
+    void get_whenCommentsLimitNegative_thenThrownException() throws Exception {
+        mvc.perform(get("/items/" + 1 + "?commentsLimit=-1")
+                        .header(Constants.USER_HEADER, 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is5xxServerError());
+
+        verify(reactiveItemClient, never()).get(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    void get_whenCommentsLimitAboveMax_thenThrownException() throws Exception {
+        mvc.perform(get("/items/" + 1 + "?commentsLimit=" + (Constants.MAX_COMMENTS_LIMIT + 1))
+                        .header(Constants.USER_HEADER, 1)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is5xxServerError());
+
+        verify(reactiveItemClient, never()).get(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    void getComments_whenSizeZero_thenThrownException() throws Exception {
+        mvc.perform(get("/items/" + 1 + "/comments?from=0&size=0")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().is5xxServerError());
+
+        verify(itemClient, never()).getComments(anyLong(), anyInt(), anyInt(), any());
+    }
+
     @Test
     void create_whenWrongRequestBody_thenThrownException() throws Exception {
         mvc.perform(post("/items")
@@ -64,7 +167,7 @@ public class ItemControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().is4xxClientError());
 
-        verify(itemClient, never()).create(wrongItemDto, 1L);
+        verify(reactiveItemClient, never()).create(wrongItemDto, 1L);
     }
 
     @Test
@@ -77,6 +180,6 @@ public class ItemControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().is4xxClientError());
 
-        verify(itemClient, never()).comment(any(CommentCreateDto.class), anyLong(), anyLong());
+        verify(reactiveItemClient, never()).comment(any(CommentCreateDto.class), anyLong(), anyLong());
     }
 }
@@ -0,0 +1,178 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class ItemSearchCacheTest {
+    private static final byte[] ITEMS = "[{\"id\":1,\"name\":\"item\"}]".getBytes(StandardCharsets.UTF_8);
+
+    private ItemSearchCache itemSearchCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setup() {
+        itemSearchCache = new ItemSearchCache("maximumSize=100,expireAfterWrite=1m",
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_whenSameQueryInDifferentCase_thenLoadedOnce() {
+        ResponseEntity<byte[]> first = itemSearchCache.get("Дрель", 0, 10, loader(HttpStatus.OK));
+        ResponseEntity<byte[]> second = itemSearchCache.get("дРЕЛЬ", 0, 10, loader(HttpStatus.OK));
+
+        assertThat(1, is(loads.get()));
+        assertThat(ITEMS, is(first.getBody()));
+        assertThat(ITEMS, is(second.getBody()));
+        assertThat(MediaType.APPLICATION_JSON, is(second.getHeaders().getContentType()));
+    }
+
+    @Test
+    void get_whenOtherPage_thenLoadedAgain() {
+        itemSearchCache.get("дрель", 0, 10, loader(HttpStatus.OK));
+        itemSearchCache.get("дрель", 10, 10, loader(HttpStatus.OK));
+
+        assertThat(2, is(loads.get()));
+    }
+
+    @Test
+    void get_whenServerRespondsWithError_thenNotCached() {
+        ResponseEntity<byte[]> first = itemSearchCache.get("дрель", 0, 10, loader(HttpStatus.INTERNAL_SERVER_ERROR));
+        itemSearchCache.get("дрель", 0, 10, loader(HttpStatus.INTERNAL_SERVER_ERROR));
+
+        assertThat(2, is(loads.get()));
+        assertThat(HttpStatus.INTERNAL_SERVER_ERROR, is(first.getStatusCode()));
+    }
+
+    @Test
+    void get_whenIdenticalQueriesConcurrent_thenLoadedOnce() throws Exception {
+        int threads = 8;
+        CountDownLatch started = new CountDownLatch(threads);
+        Supplier<ResponseEntity<byte[]>> slowLoader = () -> {
+            try {
+                // Loading lasts until every thread has asked for the same query
+                started.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return loader(HttpStatus.OK).get();
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<ResponseEntity<byte[]>>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                started.countDown();
+                return itemSearchCache.get("дрель", 0, 10, slowLoader);
+            }));
+        }
+        for (Future<ResponseEntity<byte[]>> future : futures) {
+            assertThat(ITEMS, is(future.get().getBody()));
+        }
+        executor.shutdown();
+
+        assertThat(1, is(loads.get()));
+    }
+
+    @Test
+    void get_whenConcurrentLoadFails_thenWaitersGetSameErrorWithoutLoading() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch waiterStarted = new CountDownLatch(1);
+        Supplier<ResponseEntity<byte[]>> failingLoader = () -> {
+            loading.countDown();
+            try {
+                waiterStarted.await(5, TimeUnit.SECONDS);
+                // The waiter has had time to find the pending load
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return loader(HttpStatus.SERVICE_UNAVAILABLE).get();
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<ResponseEntity<byte[]>> first = executor.submit(() ->
+                itemSearchCache.get("дрель", 0, 10, failingLoader));
+        assertThat(loading.await(5, TimeUnit.SECONDS), is(true));
+        Future<ResponseEntity<byte[]>> waiter = executor.submit(() -> {
+            waiterStarted.countDown();
+            return itemSearchCache.get("дрель", 0, 10, loader(HttpStatus.OK));
+        });
+
+        assertThat(HttpStatus.SERVICE_UNAVAILABLE, is(first.get(5, TimeUnit.SECONDS).getStatusCode()));
+        assertThat(HttpStatus.SERVICE_UNAVAILABLE, is(waiter.get(5, TimeUnit.SECONDS).getStatusCode()));
+        assertThat(1, is(loads.get()));
+        itemSearchCache.get("дрель", 0, 10, loader(HttpStatus.OK));
+        assertThat(2, is(loads.get()));
+        executor.shutdown();
+    }
+
+    @Test
+    void get_whenLoadInProgress_thenOtherKeysAndInvalidationNotBlocked() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<ResponseEntity<byte[]>> blockedLoader = () -> {
+            loading.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return loader(HttpStatus.OK).get();
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<ResponseEntity<byte[]>> blocked = executor.submit(() ->
+                itemSearchCache.get("дрель", 0, 10, blockedLoader));
+        assertThat(loading.await(5, TimeUnit.SECONDS), is(true));
+        try {
+            Future<ResponseEntity<byte[]>> other = executor.submit(() -> {
+                itemSearchCache.invalidateAll();
+                return itemSearchCache.get("пила", 0, 10, loader(HttpStatus.OK));
+            });
+
+            assertThat(ITEMS, is(other.get(5, TimeUnit.SECONDS).getBody()));
+        } finally {
+            release.countDown();
+        }
+        assertThat(ITEMS, is(blocked.get(5, TimeUnit.SECONDS).getBody()));
+        executor.shutdown();
+    }
+
+    @Test
+    void invalidateAll_whenCalled_thenAllLoadedAgain() {
+        itemSearchCache.get("дрель", 0, 10, loader(HttpStatus.OK));
+        itemSearchCache.get("пила", 0, 10, loader(HttpStatus.OK));
+
+        itemSearchCache.invalidateAll();
+        itemSearchCache.get("дрель", 0, 10, loader(HttpStatus.OK));
+        itemSearchCache.get("пила", 0, 10, loader(HttpStatus.OK));
+
+        assertThat(4, is(loads.get()));
+    }
+
+    private Supplier<ResponseEntity<byte[]>> loader(HttpStatus status) {
+        return () -> {
+            loads.incrementAndGet();
+            return ResponseEntity.status(status)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(ITEMS);
+        };
+    }
+}
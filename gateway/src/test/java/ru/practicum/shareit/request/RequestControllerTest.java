@@ -28,6 +28,8 @@ public class RequestControllerTest {
 
     @MockBean
     private RequestClient requestClient;
+    @MockBean
+    private ReactiveRequestClient reactiveRequestClient;
 
     @Autowired
     private MockMvc mvc;
@@ -52,7 +54,7 @@ public class RequestControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(result -> assertInstanceOf(MethodArgumentNotValidException.class,
                         result.getResolvedException()));
-        verify(requestClient, never()).create(any(ItemRequestCreateDto.class), anyLong());
+        verify(reactiveRequestClient, never()).create(any(ItemRequestCreateDto.class), anyLong());
 
     }
 
@@ -66,7 +68,7 @@ public class RequestControllerTest {
                 .andExpect(status().is5xxServerError())
                 .andExpect(result -> assertInstanceOf(ConstraintViolationException.class,
                         result.getResolvedException()));
-        verify(requestClient, never()).getAll(anyLong(), anyInt(), anyInt());
+        verify(requestClient, never()).getAll(anyLong(), anyInt(), anyInt(), any());
     }
 
     @Test
@@ -79,6 +81,6 @@ public class RequestControllerTest {
                 .andExpect(status().is5xxServerError())
                 .andExpect(result -> assertInstanceOf(ConstraintViolationException.class,
                         result.getResolvedException()));
-        verify(requestClient, never()).getAll(anyLong(), anyInt(), anyInt());
+        verify(requestClient, never()).getAll(anyLong(), anyInt(), anyInt(), any());
     }
 }
@@ -7,20 +7,30 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 
+import javax.servlet.http.HttpServletResponse;
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = UserController.class)
@@ -29,6 +39,8 @@ public class UserControllerTest {
     private ObjectMapper mapper;
     @MockBean
     private UserClient userClient;
+    @MockBean
+    private ReactiveUserClient reactiveUserClient;
     @Autowired
     private MockMvc mvc;
 
@@ -51,7 +63,7 @@ public class UserControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(result -> assertInstanceOf(MethodArgumentNotValidException.class,
                         result.getResolvedException()));
-        verify(userClient, never()).create(any(UserDto.class));
+        verify(reactiveUserClient, never()).create(any(UserDto.class));
     }
 
     @Test
@@ -64,6 +76,29 @@ public class UserControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(result -> assertInstanceOf(MethodArgumentNotValidException.class,
                         result.getResolvedException()));
-        verify(userClient, never()).update(any(UserUpdateDto.class), anyLong());
+        verify(reactiveUserClient, never()).update(any(UserUpdateDto.class), anyLong());
+    }
+
+    @Test
+    void getAll_whenCalled_thenServerResponseStreamed() throws Exception {
+        mvc.perform(get("/users")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk());
+        verify(userClient).getAll(any(HttpServletResponse.class));
+    }
+
+    @Test
+    void get_whenServerResponds_thenResponseWrittenAsynchronously() throws Exception {
+        when(reactiveUserClient.get(1L)).thenReturn(Mono.just(ResponseEntity.ok(Map.of("id", 1, "name", "user test"))));
+
+        MvcResult result = mvc.perform(get("/users/1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.name").value("user test"));
     }
 }
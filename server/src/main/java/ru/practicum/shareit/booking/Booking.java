@@ -9,11 +9,11 @@ import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Entity
-@NamedEntityGraph(name = "booking.item.user", attributeNodes = {
+// Ровно то, что нужно BookingDto; владелец вещи не загружается, его id есть в items.owner_id
+@NamedEntityGraph(name = "booking.item.booker", attributeNodes = {
         @NamedAttributeNode("item"),
-        @NamedAttributeNode(value = "item", subgraph = "item.user"),
         @NamedAttributeNode("booker")
-}, subgraphs = @NamedSubgraph(name = "item.user", attributeNodes = @NamedAttributeNode("owner")))
+})
 @Table(name = "bookings")
 @Getter
 @Setter
@@ -22,7 +22,8 @@ import java.util.Objects;
 @AllArgsConstructor
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     @Column(name = "booking_id")
     private Long id;
     @Enumerated(EnumType.STRING)
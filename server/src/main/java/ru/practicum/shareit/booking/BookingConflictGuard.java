@@ -0,0 +1,195 @@
+package ru.practicum.shareit.booking;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// Проверка пересечения с подтвержденными бронированиями вещи под полосной блокировкой по id вещи.
+// Кэш незакончившихся интервалов видит только этот экземпляр, между экземплярами защищает ex_bookings_item_approved
+@Component
+public class BookingConflictGuard {
+    private static final int STRIPES = 64;
+
+    private final BookingRepository bookingRepository;
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private final Cache<Long, Approved> approvedByItem;
+
+    @Autowired
+    public BookingConflictGuard(BookingRepository bookingRepository,
+                                @Value("${shareit.booking.approved-cache.spec:maximumSize=10000,expireAfterAccess=10m}")
+                                String spec) {
+        this.bookingRepository = bookingRepository;
+        this.approvedByItem = Caffeine.from(spec).build();
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public void lock(long itemId) {
+        ReentrantLock lock = stripe(itemId);
+        lock.lock();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public int getOrder() {
+                    return Ordered.LOWEST_PRECEDENCE;
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    lock.unlock();
+                }
+            });
+        }
+    }
+
+    public void release(long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            stripe(itemId).unlock();
+        }
+    }
+
+    // Блокировки нескольких вещей на время действия; полосы берутся по порядку номеров, без взаимной блокировки
+    public <T> T withLocks(Collection<Long> itemIds, Supplier<T> action) {
+        List<ReentrantLock> held = new ArrayList<>();
+        try {
+            for (Long itemId : sortedByStripe(itemIds)) {
+                ReentrantLock lock = stripe(itemId);
+                lock.lock();
+                held.add(lock);
+            }
+            return action.get();
+        } finally {
+            for (int i = held.size() - 1; i >= 0; i--) {
+                held.get(i).unlock();
+            }
+        }
+    }
+
+    // Вызывается под блокировкой вещи
+    public boolean overlapsApproved(long itemId, LocalDateTime start, LocalDateTime end) {
+        Approved approved = approved(itemId);
+        if (start.isBefore(approved.from)) {
+            // Закончившихся интервалов в кэше нет
+            return bookingRepository.existsOverlapping(itemId, BookingState.APPROVED, start, end);
+        }
+        Interval before = approved.intervals.lower(new Interval(end, end, Long.MIN_VALUE));
+        return before != null && before.end.isAfter(start);
+    }
+
+    // Вызывается под блокировкой вещи после подтверждения; при откате транзакции интервал убирается из кэша
+    public void approved(Booking booking) {
+        NavigableSet<Interval> intervals = approved(booking.getItem().getId()).intervals;
+        Interval interval = new Interval(booking.getStartDate(), booking.getEndDate(), booking.getId());
+        intervals.add(interval);
+        onRollback(() -> intervals.remove(interval));
+    }
+
+    // Вызывается под блокировкой вещи, поэтому загрузка из базы не выполняется дважды
+    private Approved approved(long itemId) {
+        LocalDateTime now = LocalDateTime.now();
+        Approved approved = approvedByItem.getIfPresent(itemId);
+        if (approved == null) {
+            approved = new Approved(now);
+            for (Booking booking : bookingRepository.findAllByItemIdAndStatusAndEndDateAfter(itemId,
+                    BookingState.APPROVED, now)) {
+                approved.intervals.add(new Interval(booking.getStartDate(), booking.getEndDate(), booking.getId()));
+            }
+            approvedByItem.put(itemId, approved);
+            // Загружено в транзакции, которая могла видеть свои же незафиксированные изменения
+            onRollback(() -> approvedByItem.invalidate(itemId));
+        } else {
+            approved.prune(now);
+        }
+        return approved;
+    }
+
+    // Откат кэша выполняется раньше снятия блокировки вещи: порядок 0 идет перед порядком по умолчанию
+    private void onRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return 0;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    private ReentrantLock stripe(long itemId) {
+        return locks[stripeIndex(itemId)];
+    }
+
+    private static int stripeIndex(long itemId) {
+        return Math.floorMod(Long.hashCode(itemId), STRIPES);
+    }
+
+    private static List<Long> sortedByStripe(Collection<Long> itemIds) {
+        return itemIds.stream()
+                .distinct()
+                .sorted(Comparator.comparingInt(BookingConflictGuard::stripeIndex))
+                .collect(Collectors.toList());
+    }
+
+    // Интервалы вещи, которые заканчиваются после from. Интервалы не пересекаются, поэтому упорядочены
+    // и по началу, и по концу, и закончившиеся всегда идут первыми
+    private static class Approved {
+        private final NavigableSet<Interval> intervals = new TreeSet<>();
+        private LocalDateTime from;
+
+        Approved(LocalDateTime from) {
+            this.from = from;
+        }
+
+        void prune(LocalDateTime now) {
+            while (!intervals.isEmpty() && !intervals.first().end.isAfter(now)) {
+                intervals.pollFirst();
+            }
+            from = now;
+        }
+    }
+
+    private static class Interval implements Comparable<Interval> {
+        private static final Comparator<Interval> ORDER = Comparator.<Interval, LocalDateTime>comparing(i -> i.start)
+                .thenComparingLong(i -> i.bookingId);
+
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final long bookingId;
+
+        Interval(LocalDateTime start, LocalDateTime end, long bookingId) {
+            this.start = start;
+            this.end = end;
+            this.bookingId = bookingId;
+        }
+
+        @Override
+        public int compareTo(Interval other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
@@ -5,12 +5,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingStateDto;
 import ru.practicum.shareit.constant.Constants;
 import ru.practicum.shareit.page.OffsetPage;
+import ru.practicum.shareit.page.SeekPage;
 
 import java.util.List;
 
@@ -19,7 +22,8 @@ import java.util.List;
 @Slf4j
 public class BookingController {
     private final BookingService bookingService;
-    private final Sort sort = Sort.by("startDate").descending();
+    private final Sort sort = Sort.by("startDate").descending()
+            .and(Sort.by("id").descending());
 
     @Autowired
     public BookingController(BookingService bookingService) {
@@ -37,6 +41,18 @@ public class BookingController {
         return bookingDto;
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> createAll(@RequestBody List<BookingCreateDto> bookingCreateDtos,
+                                                 @RequestHeader(Constants.USER_HEADER) long userId) {
+        bookingCreateDtos.forEach(bookingCreateDto -> bookingCreateDto.setBookerId(userId));
+        log.info("Получен запрос на создание {} бронирований с id пользоателя {}", bookingCreateDtos.size(), userId);
+        List<BookingBatchResultDto> results = bookingService.createAll(userId, bookingCreateDtos);
+        log.info("Создано {} из {} бронирований пакета", results.stream()
+                .filter(result -> result.getBooking() != null)
+                .count(), results.size());
+        return results;
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto confirmReject(@RequestHeader(Constants.USER_HEADER) long userId,
                              @PathVariable long bookingId, @RequestParam String approved) {
@@ -60,32 +76,53 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getAll(@RequestHeader(Constants.USER_HEADER) long userId,
-                            @RequestParam String state,
-                            @RequestParam int from,
-                            @RequestParam int size) {
+    public ResponseEntity<List<BookingDto>> getAll(@RequestHeader(Constants.USER_HEADER) long userId,
+                                                   @RequestParam String state,
+                                                   @RequestParam int from,
+                                                   @RequestParam int size,
+                                                   @RequestParam(required = false) String after) {
         log.info("Получен запрос на получение списка бронирований пользоателя с id {} со статусом {}," +
-                        " начиная с {}, по {} предметов на странице", userId, state, from, size);
+                        " начиная с {}, после {}, по {} предметов на странице", userId, state, from, after, size);
         BookingStateDto bookingStateDto = BookingStateDto.valueOf(state.toUpperCase());
-        Pageable page = new OffsetPage(from, size, sort);
-        List<BookingDto> bookingDto = bookingService.getAllForBooker(userId, bookingStateDto, page);
-        log.info("Сформирован список бронирований {} пользователя с id {}",
-                bookingDto, userId);
-        return bookingDto;
+        List<BookingDto> bookingDto;
+        if (after == null) {
+            Pageable page = new OffsetPage(from, size, sort);
+            bookingDto = bookingService.getAllForBooker(userId, bookingStateDto, page);
+        } else {
+            bookingDto = bookingService.getAllForBooker(userId, bookingStateDto, SeekPage.of(after, size));
+        }
+        log.info("Сформирован список бронирований пользователя с id {}, бронирований: {}",
+                userId, bookingDto.size());
+        return withNextCursor(bookingDto, size);
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getAllByOwner(@RequestHeader(Constants.USER_HEADER) long userId,
-                                   @RequestParam String state,
-                                   @RequestParam int from,
-                                   @RequestParam int size) {
+    public ResponseEntity<List<BookingDto>> getAllByOwner(@RequestHeader(Constants.USER_HEADER) long userId,
+                                                          @RequestParam String state,
+                                                          @RequestParam int from,
+                                                          @RequestParam int size,
+                                                          @RequestParam(required = false) String after) {
         log.info("Получен запрос на получение списка бронирований вещей пользоателя с id {} со статусом {}," +
-                " начиная с {}, по {} предметов на странице", userId, state, from, size);
+                " начиная с {}, после {}, по {} предметов на странице", userId, state, from, after, size);
         BookingStateDto bookingStateDto = BookingStateDto.valueOf(state.toUpperCase());
-        Pageable page = new OffsetPage(from, size, sort);
-        List<BookingDto> bookingDto = bookingService.getAllForOwner(userId, bookingStateDto, page);
-        log.info("Сформирован список бронирований вещей {} пользователя с id {}",
-                bookingDto, userId);
-        return bookingDto;
+        List<BookingDto> bookingDto;
+        if (after == null) {
+            Pageable page = new OffsetPage(from, size, sort);
+            bookingDto = bookingService.getAllForOwner(userId, bookingStateDto, page);
+        } else {
+            bookingDto = bookingService.getAllForOwner(userId, bookingStateDto, SeekPage.of(after, size));
+        }
+        log.info("Сформирован список бронирований вещей пользователя с id {}, бронирований: {}",
+                userId, bookingDto.size());
+        return withNextCursor(bookingDto, size);
+    }
+
+    private ResponseEntity<List<BookingDto>> withNextCursor(List<BookingDto> bookingDto, int size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!bookingDto.isEmpty() && bookingDto.size() == size) { // Полная страница - возможно, есть следующая
+            BookingDto last = bookingDto.get(bookingDto.size() - 1);
+            response.header(Constants.NEXT_CURSOR_HEADER, SeekPage.cursorOf(last.getStart(), last.getId()));
+        }
+        return response.body(bookingDto);
     }
 }
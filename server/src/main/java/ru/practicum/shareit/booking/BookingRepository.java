@@ -1,61 +1,63 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    @EntityGraph(value = "booking.item.user")
-    @Query(" select b from Booking b where b.id = ?1 and (b.booker.id = ?2 or b.item.owner.id = ?2)")
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+    // Доступ проверяется по items.owner_id, сам владелец не читается. Соединения заданы явно: с графом
+    // условие на b.item.owner добавляло бы второе соединение с items
+    @Query(" select b from Booking b join fetch b.item i join fetch b.booker" +
+            " where b.id = ?1 and (b.booker.id = ?2 or i.owner.id = ?2)")
     Optional<Booking> getByIdAndBookerIdOrItemOwnerId(long bookingId, long userId);
 
-    @EntityGraph(value = "booking.item.user")
-    List<Booking> findAllByBookerId(long bookerId, Pageable page);
-
-    @EntityGraph(value = "booking.item.user")
-    List<Booking> findAllByBookerIdAndStartDateAfter(long bookerId, LocalDateTime currentDate, Pageable page);
-
-    @EntityGraph(value = "booking.item.user")
-    List<Booking> findAllByBookerIdAndEndDateIsBefore(long bookerId, LocalDateTime currentDate, Pageable page);
-
-    @EntityGraph(value = "booking.item.user")
-    @Query(" select b from Booking b where b.booker.id = ?1 and ?2 between b.startDate and b.endDate")
-    List<Booking> findAllByBookerCurrent(long bookerId, LocalDateTime currentDate, Pageable page);
-
-    @EntityGraph(value = "booking.item.user")
-    List<Booking> findAllByBookerIdAndStatus(long bookerId, BookingState state, Pageable page);
-
-    @EntityGraph(value = "booking.item.user")
-    List<Booking> findAllByItemOwnerId(long ownerId, Pageable page);
-
-    @EntityGraph(value = "booking.item.user")
-    List<Booking> findAllByItemOwnerIdAndStartDateAfter(long ownerId, LocalDateTime currentDate, Pageable page);
-
-    @EntityGraph(value = "booking.item.user")
-    List<Booking> findAllByItemOwnerIdAndEndDateIsBefore(long ownerId, LocalDateTime currentDate, Pageable page);
-
-    @EntityGraph(value = "booking.item.user")
-    @Query(" select b from Booking b where b.item.owner.id = ?1" +
-            " and ?2 between b.startDate and b.endDate")
-    List<Booking> findAllByOwnerCurrent(long ownerId, LocalDateTime currentDate, Pageable page);
-
-    @EntityGraph(value = "booking.item.user")
-    List<Booking> findAllByItemOwnerIdAndStatus(long ownerId, BookingState bookingState, Pageable page);
-
-    @EntityGraph(value = "booking.item.user")
-    List<Booking> findAllByItemId(long itemId);
-
-    @EntityGraph(value = "booking.item.user")
-    Optional<Booking> findFirstByBookerIdAndItemIdAndStatusAndEndDateIsBefore(long bookerId, long itemId,
-                                                                              BookingState bookingState,
-                                                                              LocalDateTime created);
-
-    @EntityGraph(value = "booking.item.user")
-    @Query (" select b from Booking b where b.item.id in ?1")
-    List<Booking> findAllByItemsId(List<Long> itemsId);
+    // Для подтверждения: владелец сверяется по id, в ответ нужны вещь и арендатор
+    @EntityGraph(value = "booking.item.booker")
+    @Query(" select b from Booking b where b.id = ?1")
+    Optional<Booking> findWithItemAndBookerById(long bookingId);
+
+    @Query(" select b from Booking b where b.item.id = ?1 and b.status = ?2")
+    List<Booking> findAllByItemIdAndStatus(long itemId, BookingState status);
+
+    @Query(" select b from Booking b where b.item.id = ?1 and b.status = ?2 and b.endDate > ?3")
+    List<Booking> findAllByItemIdAndStatusAndEndDateAfter(long itemId, BookingState status, LocalDateTime date);
+
+    // Есть ли бронирование вещи в статусе status, пересекающееся с интервалом [start, end)
+    @Query(" select count(b) > 0 from Booking b where b.item.id = ?1 and b.status = ?2" +
+            " and b.startDate < ?4 and b.endDate > ?3")
+    boolean existsOverlapping(long itemId, BookingState status, LocalDateTime start, LocalDateTime end);
+
+    // Статус меняется, только если бронирование все еще в статусе expected; возвращает число измененных строк
+    @Modifying
+    @Transactional
+    @Query(" update Booking b set b.status = ?2 where b.id = ?1 and b.status = ?3")
+    int updateStatus(long bookingId, BookingState status, BookingState expected);
+
+    // Как updateStatus, но только если вещь принадлежит ownerId: отказ обходится без чтения бронирования
+    @Modifying
+    @Transactional
+    @Query(" update Booking b set b.status = ?2 where b.id = ?1 and b.status = ?3" +
+            " and b.item.id in (select i.id from Item i where i.owner.id = ?4)")
+    int updateStatusByItemOwner(long bookingId, BookingState status, BookingState expected, long ownerId);
+
+    @Query(" select count(b) > 0 from Booking b where b.booker.id = ?1 and b.item.id = ?2" +
+            " and b.status = ?3 and b.endDate < ?4")
+    boolean existsByBookerIdAndItemIdAndStatusAndEndDateIsBefore(long bookerId, long itemId,
+                                                                 BookingState bookingState, LocalDateTime created);
+
+    // Для каждой вещи последнее начавшееся и ближайшее будущее бронирование в статусе status одним запросом:
+    // бронирования вещи делятся на начавшиеся и будущие, из каждой группы берется первое
+    @Query(value = "select t.booking_id, t.item_id, t.status, t.booker_id, t.start_date, t.end_date from (" +
+            "select b.*, row_number() over (partition by b.item_id, b.start_date < ?3" +
+            " order by case when b.start_date < ?3 then b.start_date end desc, b.start_date, b.booking_id) as rn " +
+            "from bookings b where b.item_id in ?1 and b.status = ?2 and b.start_date <> ?3) t " +
+            "where t.rn = 1",
+            nativeQuery = true)
+    List<Booking> findLastAndNextByItemsIdAndStatus(List<Long> itemsId, String status, LocalDateTime currentDate);
 }
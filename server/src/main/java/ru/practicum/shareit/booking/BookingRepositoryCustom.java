@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingStateDto;
+import ru.practicum.shareit.page.SeekPage;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+    List<BookingView> findAllForBooker(long bookerId, BookingStateDto state, LocalDateTime currentDate,
+                                       Pageable page);
+
+    List<BookingView> findAllForOwner(long ownerId, BookingStateDto state, LocalDateTime currentDate,
+                                      Pageable page);
+
+    List<BookingView> findAllByBookerIdAfter(long bookerId, BookingStateDto state, LocalDateTime currentDate,
+                                             SeekPage page);
+
+    List<BookingView> findAllByItemOwnerIdAfter(long ownerId, BookingStateDto state, LocalDateTime currentDate,
+                                                SeekPage page);
+}
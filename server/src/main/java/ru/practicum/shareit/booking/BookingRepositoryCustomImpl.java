@@ -0,0 +1,137 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import ru.practicum.shareit.booking.dto.BookingStateDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.page.SeekPage;
+import ru.practicum.shareit.user.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Списки бронирований одним построителем запроса BookingView. Значения передаются параметрами,
+// поэтому текст SQL зависит только от роли, вида состояния и страницы
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingView> findAllForBooker(long bookerId, BookingStateDto state, LocalDateTime currentDate,
+                                              Pageable page) {
+        Selection selection = select(Role.BOOKER, bookerId, state, currentDate);
+        selection.query.orderBy(QueryUtils.toOrders(page.getSort(), selection.root, selection.cb));
+        return selection.list((int) page.getOffset(), page.getPageSize());
+    }
+
+    @Override
+    public List<BookingView> findAllForOwner(long ownerId, BookingStateDto state, LocalDateTime currentDate,
+                                             Pageable page) {
+        Selection selection = select(Role.OWNER, ownerId, state, currentDate);
+        selection.query.orderBy(QueryUtils.toOrders(page.getSort(), selection.root, selection.cb));
+        return selection.list((int) page.getOffset(), page.getPageSize());
+    }
+
+    @Override
+    public List<BookingView> findAllByBookerIdAfter(long bookerId, BookingStateDto state, LocalDateTime currentDate,
+                                                    SeekPage page) {
+        return select(Role.BOOKER, bookerId, state, currentDate).after(page);
+    }
+
+    @Override
+    public List<BookingView> findAllByItemOwnerIdAfter(long ownerId, BookingStateDto state,
+                                                       LocalDateTime currentDate, SeekPage page) {
+        return select(Role.OWNER, ownerId, state, currentDate).after(page);
+    }
+
+    private Selection select(Role role, long userId, BookingStateDto state, LocalDateTime currentDate) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingView> query = cb.createQuery(BookingView.class);
+        Root<Booking> root = query.from(Booking.class);
+        Join<Booking, Item> item = root.join("item");
+        Join<Booking, User> booker = root.join("booker");
+        Path<LocalDateTime> startDate = root.get("startDate");
+        Path<LocalDateTime> endDate = root.get("endDate");
+
+        Selection selection = new Selection(cb, query, root);
+        if (role == Role.BOOKER) {
+            selection.predicates.add(cb.equal(root.get("booker").get("id"), userId));
+        } else {
+            // Вещи владельца отбираются подзапросом, чтобы бронирования читались по индексу item_id
+            Subquery<Long> ownerItems = query.subquery(Long.class);
+            Root<Item> ownerItem = ownerItems.from(Item.class);
+            ownerItems.select(ownerItem.get("id"))
+                    .where(cb.equal(ownerItem.get("owner").get("id"), userId));
+            selection.predicates.add(root.get("item").get("id").in(ownerItems));
+        }
+        switch (state) {
+            case ALL:
+                break;
+            case FUTURE:
+                selection.predicates.add(cb.greaterThan(startDate, currentDate));
+                break;
+            case PAST:
+                selection.predicates.add(cb.lessThan(endDate, currentDate));
+                break;
+            case CURRENT:
+                selection.predicates.add(cb.lessThanOrEqualTo(startDate, currentDate));
+                selection.predicates.add(cb.greaterThanOrEqualTo(endDate, currentDate));
+                break;
+            default:
+                selection.predicates.add(cb.equal(root.get("status"), BookingState.valueOf(state.name())));
+                break;
+        }
+
+        query.select(cb.construct(BookingView.class, root.get("id"), startDate, endDate, root.get("status"),
+                item.get("id"), item.get("name"), item.get("description"), item.get("available"),
+                item.get("request").get("id"), booker.get("id"), booker.get("name"), booker.get("email")));
+        return selection;
+    }
+
+    private enum Role {
+        BOOKER,
+        OWNER
+    }
+
+    private final class Selection {
+        private final CriteriaBuilder cb;
+        private final CriteriaQuery<BookingView> query;
+        private final Root<Booking> root;
+        private final List<Predicate> predicates = new ArrayList<>();
+
+        private Selection(CriteriaBuilder cb, CriteriaQuery<BookingView> query, Root<Booking> root) {
+            this.cb = cb;
+            this.query = query;
+            this.root = root;
+        }
+
+        // Страница после курсора (дата начала, id) в порядке убывания
+        private List<BookingView> after(SeekPage page) {
+            Path<LocalDateTime> startDate = root.get("startDate");
+            Path<Long> id = root.get("id");
+            predicates.add(cb.or(
+                    cb.lessThan(startDate, page.getStartDate()),
+                    cb.and(cb.equal(startDate, page.getStartDate()), cb.lessThan(id, page.getId()))));
+            query.orderBy(cb.desc(startDate), cb.desc(id));
+            return list(0, page.getSize());
+        }
+
+        private List<BookingView> list(int offset, int size) {
+            query.where(predicates.toArray(new Predicate[0]));
+            return entityManager.createQuery(query)
+                    .setFirstResult(offset)
+                    .setMaxResults(size)
+                    .getResultList();
+        }
+    }
+}
@@ -1,15 +1,19 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingStateDto;
+import ru.practicum.shareit.page.SeekPage;
 
 import java.util.List;
 
 public interface BookingService {
     BookingDto create(BookingCreateDto bookingDto);
 
+    List<BookingBatchResultDto> createAll(long userId, List<BookingCreateDto> bookingCreateDtos);
+
     BookingDto confirmReject(long userId, long bookingId, String approved);
 
     BookingDto get(long userId, long bookingId);
@@ -17,4 +21,8 @@ public interface BookingService {
     List<BookingDto> getAllForBooker(long userId, BookingStateDto bookingStateDto, Pageable page);
 
     List<BookingDto> getAllForOwner(long userId, BookingStateDto bookingStateDto, Pageable page);
+
+    List<BookingDto> getAllForBooker(long userId, BookingStateDto bookingStateDto, SeekPage page);
+
+    List<BookingDto> getAllForOwner(long userId, BookingStateDto bookingStateDto, SeekPage page);
 }
@@ -1,39 +1,56 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingStateDto;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.page.SeekPage;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
+    // Бронирований пакета, проверяемых под одними блокировками; столько же вставок уходит одним JDBC-пакетом
+    private static final int BATCH_CHUNK_SIZE = 50;
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final BookingMapper bookingMapper;
+    private final BookingConflictGuard bookingConflictGuard;
 
     @Autowired
     public BookingServiceImpl(BookingRepository bookingRepository, UserRepository userRepository,
-                              ItemRepository itemRepository, BookingMapper bookingMapper) {
+                              ItemRepository itemRepository, BookingMapper bookingMapper,
+                              BookingConflictGuard bookingConflictGuard) {
         this.bookingRepository = bookingRepository;
         this.userRepository = userRepository;
         this.itemRepository = itemRepository;
         this.bookingMapper = bookingMapper;
+        this.bookingConflictGuard = bookingConflictGuard;
     }
 
     @Override
+    @Transactional
     public BookingDto create(BookingCreateDto bookingCreateDto) {
         long userId = bookingCreateDto.getBookerId();
         User user = userRepository.findById(userId)
@@ -41,49 +58,122 @@ public class BookingServiceImpl implements BookingService {
         long itemId = bookingCreateDto.getItemId();
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("вещи с id " + itemId + " не существует"));
-        if (item.getOwner().getId() == userId) {
-            throw new NotFoundException("Владелец вещи не может брать у себя её в аренду");
+        Booking booking = newBooking(bookingCreateDto, user, item);
+
+        bookingConflictGuard.lock(itemId);
+        try {
+            checkNoApprovedOverlap(booking);
+            return bookingMapper.convertBooking(bookingRepository.save(booking));
+        } finally {
+            bookingConflictGuard.release(itemId);
         }
-        if (!item.getAvailable()) {
-            throw new IllegalArgumentException("Вещь " + item + " недоступна для бронирования");
+    }
+
+    // Проверки как в create, но пользователь и вещи загружаются одним запросом, пересечения проверяются частями
+    // под блокировкой вещей; ошибка в одном бронировании возвращается в его результате и не мешает остальным
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> createAll(long userId, List<BookingCreateDto> bookingCreateDtos) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("Пользователя с id " + userId + " не существует"));
+        Map<Long, Item> items = itemRepository.findAllById(bookingCreateDtos.stream()
+                        .map(BookingCreateDto::getItemId)
+                        .distinct()
+                        .collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        BookingBatchResultDto[] results = new BookingBatchResultDto[bookingCreateDtos.size()];
+        // Номер бронирования в пакете -> бронирование, прошедшее проверки
+        Map<Integer, Booking> accepted = new LinkedHashMap<>();
+        for (int i = 0; i < bookingCreateDtos.size(); i++) {
+            BookingCreateDto bookingCreateDto = bookingCreateDtos.get(i);
+            Item item = items.get(bookingCreateDto.getItemId());
+            try {
+                if (item == null) {
+                    throw new NotFoundException("вещи с id " + bookingCreateDto.getItemId() + " не существует");
+                }
+                accepted.put(i, newBooking(bookingCreateDto, user, item));
+            } catch (NotFoundException | IllegalArgumentException e) {
+                results[i] = failed(e);
+            }
         }
-        Booking booking = Booking.builder()
-                .endDate(bookingCreateDto.getEnd())
-                .startDate(bookingCreateDto.getStart())
-                .item(item)
-                .booker(user)
-                .status(BookingState.WAITING)
-                .build();
 
-        return bookingMapper.convertBooking(bookingRepository.save(booking));
+        // Пересечения проверяются частями, и блокировки вещей каждой части снимаются сразу после проверки:
+        // большой пакет не держит блокировки до фиксации и не останавливает остальные бронирования
+        // и подтверждения. Созданное бронирование еще не подтверждено, а подтверждение проверяется заново
+        List<Map.Entry<Integer, Booking>> entries = new ArrayList<>(accepted.entrySet());
+        for (int from = 0; from < entries.size(); from += BATCH_CHUNK_SIZE) {
+            List<Map.Entry<Integer, Booking>> chunk = entries.subList(from,
+                    Math.min(entries.size(), from + BATCH_CHUNK_SIZE));
+            List<Long> itemIds = chunk.stream()
+                    .map(entry -> entry.getValue().getItem().getId())
+                    .collect(Collectors.toList());
+            List<Map.Entry<Integer, Booking>> checked = bookingConflictGuard.withLocks(itemIds, () -> chunk.stream()
+                    .filter(entry -> {
+                        try {
+                            checkNoApprovedOverlap(entry.getValue());
+                            return true;
+                        } catch (IllegalArgumentException e) {
+                            results[entry.getKey()] = failed(e);
+                            return false;
+                        }
+                    })
+                    .collect(Collectors.toList()));
+            List<Booking> saved = bookingRepository.saveAll(checked.stream()
+                    .map(Map.Entry::getValue)
+                    .collect(Collectors.toList()));
+            for (int i = 0; i < checked.size(); i++) {
+                results[checked.get(i).getKey()] = BookingBatchResultDto.builder()
+                        .status(HttpStatus.CREATED.value())
+                        .booking(bookingMapper.convertBooking(saved.get(i)))
+                        .build();
+            }
+        }
+        return List.of(results);
     }
 
     @Override
+    @Transactional
     public BookingDto confirmReject(long userId, long bookingId, String approved) {
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new NotFoundException("Бронирования с id " + bookingId + " не существует"));
-        long ownerId = booking.getItem().getOwner().getId();
-        if (ownerId != userId) {
-            throw new NotFoundException("Попытка изменить статус бронирования вещи с id "
-                    + booking.getItem().getId() + " пользователем с id " + userId +
-                    ", не являющимся владельцем вещи ");
-        }
-        if (booking.getStatus() != BookingState.WAITING) {
-            throw new IllegalArgumentException("Попытка повторного подтверждения или отказа в бронировании "
-                    + booking);
-        }
-        BookingState newState;
-        if (approved.equals("true")) {
-            newState = BookingState.APPROVED;
-        } else {
-            newState = BookingState.REJECTED;
+        if (!approved.equals("true")) {
+            // Отказ не проверяет пересечения: владелец и статус сверяются в самом UPDATE,
+            // бронирование читается для ответа или, если ничего не изменилось, чтобы назвать причину
+            if (bookingRepository.updateStatusByItemOwner(bookingId, BookingState.REJECTED, BookingState.WAITING,
+                    userId) == 0) {
+                Booking booking = findForConfirmReject(bookingId);
+                checkCanConfirmReject(userId, booking);
+                throw new IllegalArgumentException("Попытка повторного подтверждения или отказа в бронировании "
+                        + booking);
+            }
+            // Статус берется из UPDATE: бронирование могло быть прочитано в этой транзакции раньше
+            return bookingMapper.convertBooking(findForConfirmReject(bookingId).toBuilder()
+                    .status(BookingState.REJECTED)
+                    .build());
         }
 
+        // Подтверждению даты и вещь нужны до UPDATE: по ним берется блокировка и проверяются пересечения
+        Booking booking = findForConfirmReject(bookingId);
+        checkCanConfirmReject(userId, booking);
         Booking updatedStateBooking = booking.toBuilder()
-                .status(newState)
+                .status(BookingState.APPROVED)
                 .build();
 
-        return bookingMapper.convertBooking(bookingRepository.save(updatedStateBooking));
+        long itemId = booking.getItem().getId();
+        bookingConflictGuard.lock(itemId);
+        try {
+            checkNoApprovedOverlap(updatedStateBooking);
+            try {
+                updateStatus(booking, BookingState.APPROVED);
+            } catch (DataIntegrityViolationException e) {
+                // Пересечение, подтвержденное другим экземпляром сервера, отсекает ограничение в базе
+                throw new IllegalArgumentException("Бронирование " + booking
+                        + " пересекается с уже подтвержденным бронированием вещи с id " + itemId);
+            }
+            bookingConflictGuard.approved(updatedStateBooking);
+            return bookingMapper.convertBooking(updatedStateBooking);
+        } finally {
+            bookingConflictGuard.release(itemId);
+        }
     }
 
     @Override
@@ -96,81 +186,102 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public List<BookingDto> getAllForBooker(long userId, BookingStateDto bookingStateDto, Pageable page) {
-        checkUser(userId);
-        List<Booking> result = new ArrayList<>();
-
-        switch (bookingStateDto) {
-            case ALL:
-                result = bookingRepository.findAllByBookerId(userId, page);
-                    break;
-            case FUTURE:
-                result = bookingRepository.findAllByBookerIdAndStartDateAfter(userId,
-                        LocalDateTime.now(), page);
-                    break;
-            case PAST:
-                result = bookingRepository.findAllByBookerIdAndEndDateIsBefore(userId,
-                        LocalDateTime.now(), page);
-                    break;
-            case REJECTED:
-                result = bookingRepository.findAllByBookerIdAndStatus(userId, BookingState.REJECTED, page);
-                    break;
-            case APPROVED:
-                result = bookingRepository.findAllByBookerIdAndStatus(userId, BookingState.APPROVED, page);
-                    break;
-            case WAITING:
-                result = bookingRepository.findAllByBookerIdAndStatus(userId, BookingState.WAITING, page);
-                    break;
-            case CURRENT:
-                result = bookingRepository.findAllByBookerCurrent(userId,
-                        LocalDateTime.now(), page);
-                    break;
-        }
-
-        return result.stream()
-                .map(bookingMapper::convertBooking)
-                .collect(Collectors.toList());
+        return convertBookings(userId,
+                bookingRepository.findAllForBooker(userId, bookingStateDto, LocalDateTime.now(), page));
     }
 
     @Override
     public List<BookingDto> getAllForOwner(long userId, BookingStateDto bookingStateDto, Pageable page) {
-        checkUser(userId);
-        List<Booking> result = new ArrayList<>();
-
-        switch (bookingStateDto) {
-            case ALL:
-                result = bookingRepository.findAllByItemOwnerId(userId, page);
-                    break;
-            case FUTURE:
-                result = bookingRepository.findAllByItemOwnerIdAndStartDateAfter(userId,
-                            LocalDateTime.now(), page);
-                    break;
-            case PAST:
-                result = bookingRepository.findAllByItemOwnerIdAndEndDateIsBefore(userId,
-                            LocalDateTime.now(), page);
-                    break;
-            case REJECTED:
-                result = bookingRepository.findAllByItemOwnerIdAndStatus(userId, BookingState.REJECTED, page);
-                    break;
-            case APPROVED:
-                result = bookingRepository.findAllByItemOwnerIdAndStatus(userId, BookingState.APPROVED, page);
-                    break;
-            case WAITING:
-                result = bookingRepository.findAllByItemOwnerIdAndStatus(userId, BookingState.WAITING, page);
-                    break;
-            case CURRENT:
-                result = bookingRepository.findAllByOwnerCurrent(userId,
-                        LocalDateTime.now(), page);
-                    break;
+        return convertBookings(userId,
+                bookingRepository.findAllForOwner(userId, bookingStateDto, LocalDateTime.now(), page));
+    }
+
+    @Override
+    public List<BookingDto> getAllForBooker(long userId, BookingStateDto bookingStateDto, SeekPage page) {
+        return convertBookings(userId,
+                bookingRepository.findAllByBookerIdAfter(userId, bookingStateDto, LocalDateTime.now(), page));
+    }
+
+    @Override
+    public List<BookingDto> getAllForOwner(long userId, BookingStateDto bookingStateDto, SeekPage page) {
+        return convertBookings(userId,
+                bookingRepository.findAllByItemOwnerIdAfter(userId, bookingStateDto, LocalDateTime.now(), page));
+    }
+
+    private Booking findForConfirmReject(long bookingId) {
+        return bookingRepository.findWithItemAndBookerById(bookingId)
+                .orElseThrow(() -> new NotFoundException("Бронирования с id " + bookingId + " не существует"));
+    }
+
+    private void checkCanConfirmReject(long userId, Booking booking) {
+        long ownerId = booking.getItem().getOwner().getId();
+        if (ownerId != userId) {
+            throw new NotFoundException("Попытка изменить статус бронирования вещи с id "
+                    + booking.getItem().getId() + " пользователем с id " + userId +
+                    ", не являющимся владельцем вещи ");
+        }
+        if (booking.getStatus() != BookingState.WAITING) {
+            throw new IllegalArgumentException("Попытка повторного подтверждения или отказа в бронировании "
+                    + booking);
+        }
+    }
+
+    // Проверка статуса и его смена выполняются одним запросом, поэтому из двух одновременных
+    // подтверждений или отказов проходит только одно
+    private void updateStatus(Booking booking, BookingState newState) {
+        if (bookingRepository.updateStatus(booking.getId(), newState, BookingState.WAITING) == 0) {
+            throw new IllegalArgumentException("Попытка повторного подтверждения или отказа в бронировании "
+                    + booking);
+        }
+    }
+
+    private Booking newBooking(BookingCreateDto bookingCreateDto, User user, Item item) {
+        if (Objects.equals(item.getOwner().getId(), user.getId())) {
+            throw new NotFoundException("Владелец вещи не может брать у себя её в аренду");
+        }
+        if (!item.getAvailable()) {
+            throw new IllegalArgumentException("Вещь " + item + " недоступна для бронирования");
+        }
+        return Booking.builder()
+                .endDate(bookingCreateDto.getEnd())
+                .startDate(bookingCreateDto.getStart())
+                .item(item)
+                .booker(user)
+                .status(BookingState.WAITING)
+                .build();
+    }
+
+    // Тот же код ответа, что GlobalExceptionHandler вернул бы для одиночного бронирования
+    private static BookingBatchResultDto failed(RuntimeException e) {
+        HttpStatus status = e instanceof NotFoundException ? HttpStatus.NOT_FOUND : HttpStatus.BAD_REQUEST;
+        return BookingBatchResultDto.builder()
+                .status(status.value())
+                .error(e.getMessage())
+                .build();
+    }
+
+    private void checkNoApprovedOverlap(Booking booking) {
+        if (bookingConflictGuard.overlapsApproved(booking.getItem().getId(), booking.getStartDate(),
+                booking.getEndDate())) {
+            throw new IllegalArgumentException("Вещь с id " + booking.getItem().getId()
+                    + " уже забронирована на период с " + booking.getStartDate() + " по " + booking.getEndDate());
         }
+    }
 
-        return result.stream()
-                .map(bookingMapper::convertBooking)
+    // Пользователь проверяется отдельным запросом, только если бронирований не нашлось:
+    // непустой результат уже означает, что он существует
+    private List<BookingDto> convertBookings(long userId, List<BookingView> bookings) {
+        if (bookings.isEmpty()) {
+            checkUser(userId);
+        }
+        return bookings.stream()
+                .map(bookingMapper::convertBookingView)
                 .collect(Collectors.toList());
     }
 
     private void checkUser(long userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователя с id "
-                        + userId + " не существует"));
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователя с id " + userId + " не существует");
+        }
     }
 }
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+// Строка списка бронирований с колонками BookingDto; создается в select и не попадает в контекст персистентности
+@Value
+public class BookingView {
+    Long id;
+    LocalDateTime startDate;
+    LocalDateTime endDate;
+    BookingState status;
+    Long itemId;
+    String itemName;
+    String itemDescription;
+    Boolean itemAvailable;
+    Long itemRequestId;
+    Long bookerId;
+    String bookerName;
+    String bookerEmail;
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.config;
+
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+
+// SQL-запросы и загруженные сущности в текущем потоке между start и stop; пакет вставок - один запрос
+public class QueryCounter extends EmptyInterceptor {
+    private final transient ThreadLocal<Counts> counts = new ThreadLocal<>();
+
+    public void start() {
+        counts.set(new Counts());
+    }
+
+    public Counts stop() {
+        Counts result = counts.get();
+        counts.remove();
+        return result;
+    }
+
+    @Override
+    public String onPrepareStatement(String sql) {
+        Counts current = counts.get();
+        if (current != null) {
+            current.statements++;
+        }
+        return sql;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Serializable id, Object[] state, String[] propertyNames, Type[] types) {
+        Counts current = counts.get();
+        if (current != null) {
+            current.entitiesLoaded++;
+        }
+        return false;
+    }
+
+    public static class Counts {
+        private int statements;
+        private int entitiesLoaded;
+
+        public int getStatements() {
+            return statements;
+        }
+
+        public int getEntitiesLoaded() {
+            return entitiesLoaded;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+// Число SQL-запросов и загруженных сущностей на запрос к контроллеру с тегом handler.
+// Превышение бюджета (вероятно N+1) отмечается в журнале и в shareit.request.query.budget.exceeded
+@Slf4j
+public class QueryMetricsInterceptor implements HandlerInterceptor {
+    private static final double[] BUCKETS = {1, 2, 5, 10, 20, 50, 100};
+
+    private final QueryCounter queryCounter;
+    private final MeterRegistry meterRegistry;
+    private final int statementBudget;
+
+    public QueryMetricsInterceptor(QueryCounter queryCounter, MeterRegistry meterRegistry, int statementBudget) {
+        this.queryCounter = queryCounter;
+        this.meterRegistry = meterRegistry;
+        this.statementBudget = statementBudget;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        queryCounter.start();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        QueryCounter.Counts counts = queryCounter.stop();
+        if (counts == null) {
+            return;
+        }
+        String handlerName = MetricsConfig.handlerName(handler);
+        DistributionSummary.builder("shareit.request.queries")
+                .description("SQL-запросов на запрос к контроллеру")
+                .tag("handler", handlerName)
+                .serviceLevelObjectives(BUCKETS)
+                .register(meterRegistry)
+                .record(counts.getStatements());
+        DistributionSummary.builder("shareit.request.entities.loaded")
+                .description("Сущностей Hibernate, загруженных за запрос к контроллеру")
+                .tag("handler", handlerName)
+                .serviceLevelObjectives(BUCKETS)
+                .register(meterRegistry)
+                .record(counts.getEntitiesLoaded());
+        if (counts.getStatements() > statementBudget) {
+            Counter.builder("shareit.request.query.budget.exceeded")
+                    .description("Запросов к контроллеру сверх бюджета SQL-запросов")
+                    .tag("handler", handlerName)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("Возможна проблема N+1: {} {} ({}) выполнил {} SQL-запросов при бюджете {}",
+                    request.getMethod(), request.getRequestURI(), handlerName, counts.getStatements(),
+                    statementBudget);
+        }
+    }
+}
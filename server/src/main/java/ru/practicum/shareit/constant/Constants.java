@@ -2,4 +2,8 @@ package ru.practicum.shareit.constant;
 
 public final class Constants {
     public static final String USER_HEADER = "X-Sharer-User-Id";
+    public static final int MAX_COMMENTS_LIMIT = 100;
+    // Без commentsLimit отдаются все комментарии, но не больше MAX_COMMENTS_LIMIT
+    public static final String DEFAULT_COMMENTS_LIMIT = "" + MAX_COMMENTS_LIMIT;
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 }
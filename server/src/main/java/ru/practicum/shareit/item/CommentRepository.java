@@ -1,6 +1,6 @@
 package ru.practicum.shareit.item;
 
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -8,12 +8,22 @@ import ru.practicum.shareit.item.model.Comment;
 
 import java.util.List;
 
-
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    @EntityGraph(value = "comment.item.owner")
-    List<Comment> findAllByItemId(long itemId, Sort sort);
+    @EntityGraph(value = "comment.author")
+    @Query(" select c from Comment c where c.item.id = ?1")
+    List<Comment> findAllByItemId(long itemId, Pageable page);
+
+    // Не больше limit последних комментариев каждой вещи. Возвращает только id: id типа bigint из нативного
+    // запроса Hibernate отдает как BigInteger на PostgreSQL и как Long на H2
+    @Query(value = "select t.comment_id from (" +
+            "select c.comment_id, row_number() over (partition by c.item_id" +
+            " order by c.created desc, c.comment_id desc) as rn " +
+            "from comments c where c.item_id in ?1) t " +
+            "where t.rn <= ?2",
+            nativeQuery = true)
+    List<Number> findLastIdsByItemsId(List<Long> itemsId, int limit);
 
-    @EntityGraph(value = "comment.item.owner")
-    @Query(" select c from Comment  c where c.item.id in ?1")
-    List<Comment> findAllByItemsId(List<Long> itemsId);
+    @EntityGraph(value = "comment.author")
+    @Query(" select c from Comment c where c.id in ?1 order by c.created desc, c.id desc")
+    List<Comment> findAllByIds(List<Long> ids);
 }
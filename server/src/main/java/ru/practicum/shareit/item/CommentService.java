@@ -1,8 +1,13 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.item.dto.CommentCreateDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 
+import java.util.List;
+
 public interface CommentService {
     CommentDto create(CommentCreateDto commentCreateDto);
+
+    List<CommentDto> getAll(long itemId, Pageable page);
 }
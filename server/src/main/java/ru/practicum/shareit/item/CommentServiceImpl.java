@@ -1,8 +1,9 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.booking.Booking;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.exception.NotFoundException;
@@ -14,7 +15,11 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 @Service
+@Transactional(readOnly = true)
 public class CommentServiceImpl implements CommentService {
     private final CommentRepository commentRepository;
     private final UserRepository userRepository;
@@ -38,6 +43,7 @@ public class CommentServiceImpl implements CommentService {
     }
 
     @Override
+    @Transactional
     public CommentDto create(CommentCreateDto commentCreateDto) {
         long userId = commentCreateDto.getAuthorId();
         User user = userRepository.findById(userId)
@@ -46,10 +52,10 @@ public class CommentServiceImpl implements CommentService {
         long itemId = commentCreateDto.getItemId();
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new IllegalArgumentException("Вещи с id " + itemId + " не существует"));
-        Booking bookings = bookingRepository.findFirstByBookerIdAndItemIdAndStatusAndEndDateIsBefore(userId, itemId,
-                BookingState.APPROVED, commentCreateDto.getCreated())
-                .orElseThrow(() -> new IllegalArgumentException("Пользователь " + user
-                        + " не брал вещь с id " + itemId));
+        if (!bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndDateIsBefore(userId, itemId,
+                BookingState.APPROVED, commentCreateDto.getCreated())) {
+            throw new IllegalArgumentException("Пользователь " + user + " не брал вещь с id " + itemId);
+        }
         CommentDto commentDto = CommentDto.builder()
                 .created(commentCreateDto.getCreated())
                 .text(commentCreateDto.getText())
@@ -59,4 +65,16 @@ public class CommentServiceImpl implements CommentService {
         Comment comment = commentRepository.save(commentMapper.convertDto(commentDto));
         return commentMapper.convertComment(comment);
     }
+
+    @Override
+    public List<CommentDto> getAll(long itemId, Pageable page) {
+        List<Comment> comments = commentRepository.findAllByItemId(itemId, page);
+        // Существование вещи проверяется только для пустой страницы
+        if (comments.isEmpty() && !itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Вещи с id " + itemId + " не существует");
+        }
+        return comments.stream()
+                .map(commentMapper::convertComment)
+                .collect(Collectors.toList());
+    }
 }
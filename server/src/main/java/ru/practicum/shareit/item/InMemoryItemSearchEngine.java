@@ -0,0 +1,247 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Триграммный индекс доступных вещей в памяти процесса для H2 (профили ci и test). Строится заново при запуске
+// и не видит изменений других экземпляров и записей в обход JPA, поэтому для prod не подходит
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+    private static final int GRAM = 3;
+
+    private final ItemRepository itemRepository;
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Autowired
+    public InMemoryItemSearchEngine(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @PostConstruct
+    void load() {
+        List<Item> items = itemRepository.findAll();
+        lock.writeLock().lock();
+        try {
+            items.forEach(item -> put(item.getId(), Document.of(item)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Построен индекс поиска вещей: {} доступных из {}", documents.size(), items.size());
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable page) {
+        String query = text.toLowerCase(Locale.ROOT);
+        List<Long> ids;
+        lock.readLock().lock();
+        try {
+            ids = candidates(query).stream()
+                    .map(document -> document.match(query))
+                    .filter(Objects::nonNull)
+                    .sorted()
+                    .skip(page.getOffset())
+                    .limit(page.getPageSize())
+                    .map(match -> match.id)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, Item> items = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        // Индекс обновляется при сбросе изменений в базу, поэтому вещь еще раз проверяется по загруженной версии
+        return ids.stream()
+                .map(items::get)
+                .filter(item -> item != null && matches(item, query))
+                .collect(Collectors.toList());
+    }
+
+    private static boolean matches(Item item, String query) {
+        Document document = Document.of(item);
+        return document != null && document.match(query) != null;
+    }
+
+    @Override
+    public void index(Item item) {
+        replace(item.getId(), Document.of(item));
+    }
+
+    @Override
+    public void remove(long itemId) {
+        replace(itemId, null);
+    }
+
+    private void replace(long itemId, Document document) {
+        lock.writeLock().lock();
+        try {
+            Document previous = put(itemId, document);
+            rememberForRollback(itemId, previous);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Вызывается под блокировкой записи. Возвращает прежний документ
+    private Document put(long itemId, Document document) {
+        Document previous = documents.remove(itemId);
+        if (previous != null) {
+            for (String gram : previous.grams) {
+                Set<Long> ids = postings.get(gram);
+                ids.remove(itemId);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+        if (document != null) {
+            documents.put(itemId, document);
+            for (String gram : document.grams) {
+                postings.computeIfAbsent(gram, key -> new HashSet<>()).add(itemId);
+            }
+        }
+        return previous;
+    }
+
+    // Вызывается под блокировкой чтения
+    private Collection<Document> candidates(String query) {
+        if (query.length() < GRAM) {
+            return documents.values();
+        }
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams(query)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return Collections.emptyList();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> ids = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !ids.isEmpty(); i++) {
+            ids.retainAll(lists.get(i));
+        }
+        return ids.stream()
+                .map(documents::get)
+                .collect(Collectors.toList());
+    }
+
+    // Первое изменение вещи в транзакции запоминает ее исходный документ, при откате он возвращается в индекс
+    @SuppressWarnings("unchecked")
+    private void rememberForRollback(long itemId, Document previous) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Map<Long, Document> originals = (Map<Long, Document>) TransactionSynchronizationManager.getResource(this);
+        if (originals == null) {
+            Map<Long, Document> changed = new HashMap<>();
+            originals = changed;
+            TransactionSynchronizationManager.bindResource(this, changed);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(InMemoryItemSearchEngine.this);
+                    if (status != STATUS_COMMITTED) {
+                        rollback(changed);
+                    }
+                }
+            });
+        }
+        if (!originals.containsKey(itemId)) {
+            originals.put(itemId, previous);
+        }
+    }
+
+    private void rollback(Map<Long, Document> originals) {
+        lock.writeLock().lock();
+        try {
+            originals.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static class Document {
+        private final long id;
+        private final String name;
+        private final String description;
+        private final Set<String> grams;
+
+        private Document(long id, String name, String description) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.grams = grams(name);
+            this.grams.addAll(grams(description));
+        }
+
+        static Document of(Item item) {
+            if (!Boolean.TRUE.equals(item.getAvailable())) {
+                return null;
+            }
+            return new Document(item.getId(),
+                    Objects.toString(item.getName(), "").toLowerCase(Locale.ROOT),
+                    Objects.toString(item.getDescription(), "").toLowerCase(Locale.ROOT));
+        }
+
+        Match match(String query) {
+            int position = name.indexOf(query);
+            if (position >= 0) {
+                return new Match(id, 0, position);
+            }
+            position = description.indexOf(query);
+            if (position >= 0) {
+                return new Match(id, 1, position);
+            }
+            return null;
+        }
+    }
+
+    // Совпадение в названии выше совпадения в описании, затем чем ближе к началу, тем выше
+    private static class Match implements Comparable<Match> {
+        private static final Comparator<Match> ORDER = Comparator.<Match>comparingInt(match -> match.field)
+                .thenComparingInt(match -> match.position)
+                .thenComparingLong(match -> match.id);
+
+        private final long id;
+        private final int field;
+        private final int position;
+
+        Match(long id, int field, int position) {
+            this.id = id;
+            this.field = field;
+            this.position = position;
+        }
+
+        @Override
+        public int compareTo(Match other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
@@ -22,6 +22,7 @@ public class ItemController {
     private final ItemService itemService;
     private final CommentService commentService;
     private final Sort sort = Sort.by("id");
+    private final Sort commentsSort = Sort.by("created").descending().and(Sort.by("id").descending());
 
     @Autowired
     public ItemController(ItemService itemService, CommentService commentService) {
@@ -32,21 +33,37 @@ public class ItemController {
     @GetMapping
     public List<ItemWithBookingsAndCommentsDto> getAllOwn(@RequestHeader(Constants.USER_HEADER) long userId,
                                                           @RequestParam int from,
-                                                          @RequestParam int size) {
+                                                          @RequestParam int size,
+                                                          @RequestParam(defaultValue =
+                                                                  Constants.DEFAULT_COMMENTS_LIMIT) int commentsLimit) {
         log.info("Получен запрос на получение списка предметов пользователя с id {}," +
                 " начиная с {}, по {} предметов на странице", userId, from, size);
         Pageable page = new OffsetPage(from, size, sort);
-        List<ItemWithBookingsAndCommentsDto> result = itemService.getAll(userId, page);
-        log.info("Найден список предметов пользователя с id {}: {}", userId, result);
+        List<ItemWithBookingsAndCommentsDto> result = itemService.getAll(userId, page, commentsLimit);
+        log.info("Найден список предметов пользователя с id {}, предметов: {}", userId, result.size());
         return result;
     }
 
     @GetMapping("/{itemId}")
     public ItemWithBookingsAndCommentsDto get(@PathVariable long itemId,
-                                              @RequestHeader(Constants.USER_HEADER) long userId) {
+                                              @RequestHeader(Constants.USER_HEADER) long userId,
+                                              @RequestParam(defaultValue = Constants.DEFAULT_COMMENTS_LIMIT)
+                                              int commentsLimit) {
         log.info("Получен запрос на получение предмета с id {}", itemId);
-        ItemWithBookingsAndCommentsDto result = itemService.get(itemId, userId);
-        log.info("Найден предмет {}:",  result);
+        ItemWithBookingsAndCommentsDto result = itemService.get(itemId, userId, commentsLimit);
+        log.info("Найден предмет с id {}, комментариев: {}", itemId, result.getComments().size());
+        return result;
+    }
+
+    @GetMapping("/{itemId}/comments")
+    public List<CommentDto> getComments(@PathVariable long itemId,
+                                        @RequestParam int from,
+                                        @RequestParam int size) {
+        log.info("Получен запрос на получение комментариев к предмету с id {}," +
+                " начиная с {}, по {} комментариев на странице", itemId, from, size);
+        Pageable page = new OffsetPage(from, size, commentsSort);
+        List<CommentDto> result = commentService.getAll(itemId, page);
+        log.info("Найдены комментарии к предмету с id {}, комментариев: {}", itemId, result.size());
         return result;
     }
 
@@ -58,7 +75,7 @@ public class ItemController {
                 " начиная с {}, по {} предметов на странице", text, from, size);
         Pageable page = new OffsetPage(from, size, sort);
         List<ItemDto> result = itemService.search(text, page);
-        log.info("Найден список предметов : {}", result);
+        log.info("Найден список предметов, предметов: {}", result.size());
         return result;
     }
 
@@ -68,7 +85,7 @@ public class ItemController {
                           @RequestHeader(Constants.USER_HEADER) long userId) {
         log.info("Получен запрос на создание предмета {} с id пользоателя {}", itemDto, userId);
         ItemDto result = itemService.create(itemDto, userId);
-        log.info("Создан предмет {}:",  result);
+        log.info("Создан предмет с id {}", result.getId());
         return result;
     }
 
@@ -79,7 +96,7 @@ public class ItemController {
         log.info("Получен запрос на обновление предмета {} с id пользоателя {}", itemDto, userId);
         itemDto.setId(itemId);
         ItemDto result = itemService.update(itemDto, userId);
-        log.info("Обновлен предмет {}:",  result);
+        log.info("Обновлен предмет с id {}", itemId);
         return result;
     }
 
@@ -6,18 +6,33 @@ import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.List;
+import java.util.Optional;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemRepositoryCustom {
+    // Снимок из кэша, см. ItemRepositoryCustomImpl
+    @Override
+    Optional<Item> findById(Long id);
+
+    @Query(" select i from Item i where i.owner.id = ?1")
     List<Item> findAllByOwnerId(long ownerId, Pageable page);
 
     @Query(" select i from Item i " +
-        "where upper(i.name) like upper(concat('%', ?1, '%')) " +
-        "   or upper(i.description) like upper(concat('%', ?1, '%'))" +
-            "and i.available = true ")
+            "where i.available = true " +
+            "  and (upper(i.name) like upper(concat('%', ?1, '%')) " +
+            "   or upper(i.description) like upper(concat('%', ?1, '%')))")
     List<Item> search(String text, Pageable page);
 
+    // Только для PostgreSQL: условия совпадают с частичными триграммными индексами из db/postgresql
+    @Query(value = "select * from items i " +
+            "where i.is_available " +
+            "  and (i.name ilike ?1 or i.description ilike ?1) " +
+            "order by i.name ilike ?1 desc, similarity(i.name, ?2) desc, i.item_id",
+            nativeQuery = true)
+    List<Item> searchRanked(String pattern, String text, Pageable page);
+
     @Query(" select i from Item i where i.request.id in ?1")
     List<Item> findAllByRequestsId(List<Long> requestsId);
 
+    @Query(" select i from Item i where i.request.id = ?1")
     List<Item> findAllByRequestId(long requestId);
 }
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Optional;
+
+public interface ItemRepositoryCustom {
+    Optional<Item> findById(Long id);
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.item;
+
+import lombok.Value;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.user.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Optional;
+
+// Поиск вещи по id через кэш items. Каждый вызов получает отсоединенную копию, владелец и запрос в ней -
+// ссылки из текущего контекста сохранения; изменения сохраняются только через save
+public class ItemRepositoryCustomImpl implements ItemRepositoryCustom {
+    private final Cache items;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ItemRepositoryCustomImpl(ObjectProvider<CacheManager> cacheManager) {
+        // Без CacheConfig, как в срезах @DataJpaTest, поиск идет прямо в базу
+        this.items = cacheManager.getIfAvailable(NoOpCacheManager::new).getCache(CacheConfig.ITEMS);
+    }
+
+    @Override
+    public Optional<Item> findById(Long id) {
+        Snapshot snapshot = items.get(id, Snapshot.class);
+        if (snapshot == null) {
+            Item item = entityManager.find(Item.class, id);
+            if (item == null) {
+                return Optional.empty();
+            }
+            snapshot = new Snapshot(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                    item.getOwner() == null ? null : item.getOwner().getId(),
+                    item.getRequest() == null ? null : item.getRequest().getId());
+            items.put(id, snapshot);
+        }
+        return Optional.of(Item.builder()
+                .id(snapshot.id)
+                .name(snapshot.name)
+                .description(snapshot.description)
+                .available(snapshot.available)
+                .owner(snapshot.ownerId == null ? null : entityManager.getReference(User.class, snapshot.ownerId))
+                .request(snapshot.requestId == null ? null
+                        : entityManager.getReference(ItemRequest.class, snapshot.requestId))
+                .build());
+    }
+
+    @Value
+    private static class Snapshot {
+        Long id;
+        String name;
+        String description;
+        Boolean available;
+        Long ownerId;
+        Long requestId;
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+// Поиск доступных вещей по подстроке в названии или описании. Реализацию выбирает обязательное
+// свойство shareit.search.engine: like, postgres (по умолчанию в application.yml) или memory (ci, test)
+public interface ItemSearchEngine {
+    // Возвращает доступные вещи, найденные по тексту, более релевантные первыми
+    List<Item> search(String text, Pageable page);
+
+    // Вызывается после сохранения вещи, чтобы движок со своим индексом мог его обновить
+    default void index(Item item) {
+    }
+
+    // Вызывается после удаления вещи
+    default void remove(long itemId) {
+    }
+}
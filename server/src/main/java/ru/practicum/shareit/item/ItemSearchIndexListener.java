@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+// Передает движку поиска изменения вещей через JPA, в том числе в обход ItemService.
+// Откат транзакции движок обрабатывает сам; без движка (срезы тестов) ничего не делает
+public class ItemSearchIndexListener {
+    private final ObjectProvider<ItemSearchEngine> searchEngine;
+
+    @Autowired
+    public ItemSearchIndexListener(ObjectProvider<ItemSearchEngine> searchEngine) {
+        this.searchEngine = searchEngine;
+    }
+
+    @PostPersist
+    @PostUpdate
+    void saved(Item item) {
+        searchEngine.ifAvailable(engine -> engine.index(item));
+    }
+
+    @PostRemove
+    void removed(Item item) {
+        searchEngine.ifAvailable(engine -> engine.remove(item.getId()));
+    }
+}
@@ -7,13 +7,13 @@ import ru.practicum.shareit.item.dto.ItemWithBookingsAndCommentsDto;
 import java.util.List;
 
 public interface ItemService {
-    List<ItemWithBookingsAndCommentsDto> getAll(long userId, Pageable page);
+    List<ItemWithBookingsAndCommentsDto> getAll(long userId, Pageable page, int commentsLimit);
 
     ItemDto create(ItemDto itemDto, long userId);
 
     ItemDto update(ItemDto itemDto, long userId);
 
-    ItemWithBookingsAndCommentsDto get(long itemId, long userId);
+    ItemWithBookingsAndCommentsDto get(long itemId, long userId, int commentsLimit);
 
     List<ItemDto> search(String text, Pageable page);
 }
@@ -1,19 +1,24 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.constant.Constants;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingsAndCommentsDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.page.OffsetPage;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
@@ -24,7 +29,10 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
+    private static final Sort COMMENTS_SORT = Sort.by("created").descending().and(Sort.by("id").descending());
+
     private final ItemRepository itemRepository;
     private final ItemMapper itemMapper;
     private final UserRepository userRepository;
@@ -33,12 +41,14 @@ public class ItemServiceImpl implements ItemService {
     private final CommentRepository commentRepository;
     private final CommentMapper commentMapper;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
 
     @Autowired
     public ItemServiceImpl(ItemRepository itemRepository, ItemMapper itemMapper,
                            UserRepository userRepository, ItemRequestRepository itemRequestRepository,
                            BookingRepository bookingRepository, BookingMapper bookingMapper,
-                           CommentRepository commentRepository, CommentMapper commentMapper) {
+                           CommentRepository commentRepository, CommentMapper commentMapper,
+                           ItemSearchEngine itemSearchEngine) {
         this.itemRepository = itemRepository;
         this.itemMapper = itemMapper;
         this.userRepository = userRepository;
@@ -47,30 +57,30 @@ public class ItemServiceImpl implements ItemService {
         this.commentRepository = commentRepository;
         this.commentMapper = commentMapper;
         this.itemRequestRepository = itemRequestRepository;
+        this.itemSearchEngine = itemSearchEngine;
     }
 
     @Override
-    public List<ItemWithBookingsAndCommentsDto> getAll(long userId, Pageable page) {
+    public List<ItemWithBookingsAndCommentsDto> getAll(long userId, Pageable page, int commentsLimit) {
+        checkCommentsLimit(commentsLimit);
         List<Item> items = itemRepository.findAllByOwnerId(userId, page);
 
         List<Long> itemsId = items.stream()
                 .map(Item::getId)
                 .collect(Collectors.toList());
-        List<Comment> comments = commentRepository.findAllByItemsId(itemsId);
-        List<Booking> bookings = bookingRepository.findAllByItemsId(itemsId);
+        List<Comment> comments = findLastComments(itemsId, commentsLimit);
+        Map<Long, Booking> lastBookingByItem = new HashMap<>();
+        Map<Long, Booking> nextBookingByItem = new HashMap<>();
+        findLastAndNextBookings(itemsId, lastBookingByItem, nextBookingByItem);
         Map<Long, List<Comment>> commentsByItem = comments.stream()
                 .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
-        Map<Long, List<Booking>> bookingsByItem = bookings.stream()
-                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
         List<ItemWithBookingsAndCommentsDto> itemsDto = new ArrayList<>();
         for (Item item : items) {
             ItemWithBookingsAndCommentsDto itemWithBookingsAndCommentsDto = itemMapper.convertItemToBookingDto(item);
             long itemId = item.getId();
 
-            List<Booking> itemBooking = bookingsByItem.get(itemId);
-            if (itemBooking != null) {
-                setBookingsToItemDto(itemWithBookingsAndCommentsDto, itemBooking);
-            }
+            setBookingsToItemDto(itemWithBookingsAndCommentsDto, lastBookingByItem.get(itemId),
+                    nextBookingByItem.get(itemId));
 
             List<Comment> itemComments = commentsByItem.get(itemId);
             if (itemComments != null) {
@@ -82,6 +92,7 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @Transactional
     public ItemDto create(ItemDto itemDto, long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователя с id " + userId + " не существует"));
@@ -97,6 +108,8 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.ITEMS, key = "#itemDto.id")
     public ItemDto update(ItemDto itemDto, long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователя с id " + userId + " не существует"));
@@ -105,7 +118,8 @@ public class ItemServiceImpl implements ItemService {
 
         Item existentItemCopy = existentItem.toBuilder().build();
         Item newItem = itemMapper.convertItemDto(itemDto);
-        if (!Objects.equals(existentItem.getOwner(), user)) {
+        // Вещь и пользователь могут быть взяты из кэша, поэтому сравниваются только id
+        if (!Objects.equals(existentItem.getOwner().getId(), user.getId())) {
             throw new NotFoundException("Попытка изменить вещь пользователем, не являющимся владельцом");
         }
         if (newItem.getName() != null) {
@@ -122,16 +136,20 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
-    public ItemWithBookingsAndCommentsDto get(long itemId, long userId) {
+    public ItemWithBookingsAndCommentsDto get(long itemId, long userId, int commentsLimit) {
+        checkCommentsLimit(commentsLimit);
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Предмета с id " + itemId + " не существует"));
         ItemWithBookingsAndCommentsDto itemWithBookingsDto = itemMapper.convertItemToBookingDto(item);
         if (item.getOwner().getId() == userId) { // Выдаем бронирования только хозяину вещи
-            List<Booking> bookings = bookingRepository.findAllByItemId(itemId);
-            setBookingsToItemDto(itemWithBookingsDto, bookings);
+            Map<Long, Booking> lastBooking = new HashMap<>();
+            Map<Long, Booking> nextBooking = new HashMap<>();
+            findLastAndNextBookings(List.of(itemId), lastBooking, nextBooking);
+            setBookingsToItemDto(itemWithBookingsDto, lastBooking.get(itemId), nextBooking.get(itemId));
         }
-        Sort sort = Sort.by("created").descending();
-        List<Comment> comments = commentRepository.findAllByItemId(itemId, sort);
+        List<Comment> comments = commentsLimit > 0
+                ? commentRepository.findAllByItemId(itemId, new OffsetPage(0, commentsLimit, COMMENTS_SORT))
+                : List.of();
         setCommentsToItemDto(itemWithBookingsDto, comments);
         return itemWithBookingsDto;
     }
@@ -141,26 +159,50 @@ public class ItemServiceImpl implements ItemService {
         if (text.isBlank()) {
             return Collections.emptyList();
         }
-        List<Item> items = itemRepository.search(text, page);
+        List<Item> items = itemSearchEngine.search(text, page);
         return itemMapper.convertListItem(items);
     }
 
     private void setBookingsToItemDto(ItemWithBookingsAndCommentsDto itemWithBookingsDto,
-                                      List<Booking> itemBookings) {
-        Optional<Booking> lastBooking = itemBookings.stream()
-                .filter(e -> e.getStartDate().isBefore(LocalDateTime.now())
-                        && e.getStatus().equals(BookingState.APPROVED))
-                .max(Comparator.comparing(Booking::getStartDate));
-        Optional<Booking> nextBooking = itemBookings.stream()
-                .filter(e -> e.getStartDate().isAfter(LocalDateTime.now())
-                        && e.getStatus().equals(BookingState.APPROVED))
-                .min(Comparator.comparing(Booking::getStartDate));
-        BookingShortDto lastBookingDto = lastBooking.map(bookingMapper::convertBookingToShortDto).orElse(null);
+                                      Booking lastBooking, Booking nextBooking) {
+        BookingShortDto lastBookingDto = lastBooking == null ? null : bookingMapper.convertBookingToShortDto(lastBooking);
         itemWithBookingsDto.setLastBooking(lastBookingDto);
-        BookingShortDto nextBookingDto = nextBooking.map(bookingMapper::convertBookingToShortDto).orElse(null);
+        BookingShortDto nextBookingDto = nextBooking == null ? null : bookingMapper.convertBookingToShortDto(nextBooking);
         itemWithBookingsDto.setNextBooking(nextBookingDto);
     }
 
+    // Последнее начавшееся и ближайшее будущее подтвержденное бронирование каждой вещи
+    private void findLastAndNextBookings(List<Long> itemsId, Map<Long, Booking> lastBookingByItem,
+                                         Map<Long, Booking> nextBookingByItem) {
+        if (itemsId.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Booking booking : bookingRepository.findLastAndNextByItemsIdAndStatus(itemsId,
+                BookingState.APPROVED.name(), now)) {
+            Map<Long, Booking> byItem = booking.getStartDate().isBefore(now) ? lastBookingByItem : nextBookingByItem;
+            byItem.put(booking.getItem().getId(), booking);
+        }
+    }
+
+    // Остальные комментарии отдает постраничный GET /items/{itemId}/comments
+    private void checkCommentsLimit(int commentsLimit) {
+        if (commentsLimit < 0 || commentsLimit > Constants.MAX_COMMENTS_LIMIT) {
+            throw new IllegalArgumentException("Число комментариев должно быть от 0 до "
+                    + Constants.MAX_COMMENTS_LIMIT + ", получено " + commentsLimit);
+        }
+    }
+
+    private List<Comment> findLastComments(List<Long> itemsId, int commentsLimit) {
+        if (itemsId.isEmpty() || commentsLimit <= 0) {
+            return List.of();
+        }
+        List<Long> commentsId = commentRepository.findLastIdsByItemsId(itemsId, commentsLimit).stream()
+                .map(Number::longValue)
+                .collect(Collectors.toList());
+        return commentsId.isEmpty() ? List.of() : commentRepository.findAllByIds(commentsId);
+    }
+
     private void setCommentsToItemDto(ItemWithBookingsAndCommentsDto itemWithBookingsDto,
                                       List<Comment> itemComments) {
         itemWithBookingsDto.setComments(itemComments.stream()
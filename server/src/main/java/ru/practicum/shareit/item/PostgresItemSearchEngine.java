@@ -0,0 +1,37 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.page.OffsetPage;
+
+import java.util.List;
+
+// Поиск по частичным триграммным GIN-индексам PostgreSQL (pg_trgm), построенным только по доступным вещам
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "postgres")
+public class PostgresItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Autowired
+    public PostgresItemSearchEngine(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable page) {
+        String pattern = "%" + escapeLike(text) + "%";
+        // Порядок задается ранжированием в запросе, сортировка страницы не применяется
+        Pageable unsorted = new OffsetPage((int) page.getOffset(), page.getPageSize(), Sort.unsorted());
+        return itemRepository.searchRanked(pattern, text, unsorted);
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
@@ -7,11 +7,8 @@ import javax.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@NamedEntityGraph(name = "comment.item.owner", attributeNodes = {
-        @NamedAttributeNode("item"),
-        @NamedAttributeNode(value = "item", subgraph = "item.user"),
-        @NamedAttributeNode("author")
-}, subgraphs = @NamedSubgraph(name = "item.user", attributeNodes = @NamedAttributeNode("owner")))
+// CommentDto берет из связей только имя автора
+@NamedEntityGraph(name = "comment.author", attributeNodes = @NamedAttributeNode("author"))
 @Table(name = "comments")
 @Builder(toBuilder = true)
 @Getter
@@ -21,7 +18,8 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Comment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_seq")
+    @SequenceGenerator(name = "comments_seq", sequenceName = "comments_seq", allocationSize = 50)
     @Column(name = "comment_id")
     private Long id;
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.page;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+// Страница после курсора <дата начала>,<id> для списков в порядке (дата начала desc, id desc)
+@Value
+public class SeekPage {
+    LocalDateTime startDate;
+    long id;
+    int size;
+
+    public static SeekPage of(String cursor, int size) {
+        int separator = cursor.lastIndexOf(',');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Некорректный курсор " + cursor
+                    + ", ожидается формат <дата начала>,<id>");
+        }
+        try {
+            LocalDateTime startDate = LocalDateTime.parse(cursor.substring(0, separator).trim());
+            long id = Long.parseLong(cursor.substring(separator + 1).trim());
+            return new SeekPage(startDate, id, size);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректный курсор " + cursor
+                    + ", ожидается формат <дата начала>,<id>");
+        }
+    }
+
+    public static String cursorOf(LocalDateTime startDate, long id) {
+        return startDate + "," + id;
+    }
+}
@@ -40,7 +40,7 @@ public class ItemRequestController {
     public List<ItemRequestDto> getAllOwn(@RequestHeader(Constants.USER_HEADER) long userId) {
         log.info("Получен запрос на список запросов пользоателя с id {}", userId);
         List<ItemRequestDto> result = itemRequestService.getAllOwn(userId, sort);
-        log.info("Получен список запросов пользователя с id {}: {}", userId, result);
+        log.info("Получен список запросов пользователя с id {}, запросов: {}", userId, result.size());
         return result;
     }
 
@@ -52,7 +52,7 @@ public class ItemRequestController {
                 " по {} запросов на странице от пользоателя с id {}", from, size, userId);
         Pageable page = new OffsetPage(from, size, sort);
         List<ItemRequestDto> result = itemRequestService.getAll(userId, page);
-        log.info("Получен список запросов пользователя с id {}: {}", userId, result);
+        log.info("Получен список запросов для пользователя с id {}, запросов: {}", userId, result.size());
         return result;
     }
 
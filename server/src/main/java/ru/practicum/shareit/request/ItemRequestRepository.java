@@ -3,11 +3,20 @@ package ru.practicum.shareit.request;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+    @Query(" select r from ItemRequest r where r.requester.id = ?1")
     List<ItemRequest> findAllByRequesterId(long userId, Sort sort);
 
+    // Для несуществующего пользователя список пуст, тогда сервис отдельно проверяет пользователя
+    @Query(" select r from ItemRequest r where r.requester.id <> ?1" +
+            " and exists (select u.id from User u where u.id = ?1)")
     List<ItemRequest> findAllByRequesterIdIsNot(long userId, Pageable page);
+
+    @Query(" select r from ItemRequest r where r.id = ?1 and exists (select u.id from User u where u.id = ?2)")
+    Optional<ItemRequest> findByIdForUser(long requestId, long userId);
 }
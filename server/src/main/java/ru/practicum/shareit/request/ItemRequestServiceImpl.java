@@ -4,6 +4,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.ItemRepository;
@@ -17,9 +18,11 @@ import ru.practicum.shareit.user.UserRepository;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
+@Transactional(readOnly = true)
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
@@ -39,6 +42,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     @Override
+    @Transactional
     public ItemRequestDto create(ItemRequestCreateDto requestCreateDto) {
         long userId = requestCreateDto.getRequesterId();
         User user = getAndCheckUserExistence(userId);
@@ -52,24 +56,32 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public List<ItemRequestDto> getAllOwn(long userId, Sort sort) {
-        getAndCheckUserExistence(userId);
         List<ItemRequest> itemRequests = itemRequestRepository.findAllByRequesterId(userId, sort);
+        // Непустой список собственных запросов уже означает, что пользователь существует
+        if (itemRequests.isEmpty()) {
+            checkUserExistence(userId);
+        }
         return composeItemRequestDtoList(itemRequests);
     }
 
     @Override
     public List<ItemRequestDto> getAll(long userId, Pageable page) {
-        getAndCheckUserExistence(userId);
         List<ItemRequest> itemRequestList = itemRequestRepository.findAllByRequesterIdIsNot(userId, page);
+        // Чужие запросы находятся только для существующего пользователя
+        if (itemRequestList.isEmpty()) {
+            checkUserExistence(userId);
+        }
         return composeItemRequestDtoList(itemRequestList);
     }
 
     @Override
     public ItemRequestDto get(long userId, long requestId) {
-        getAndCheckUserExistence(userId);
-
-        ItemRequest itemRequest = itemRequestRepository.findById(requestId)
-                .orElseThrow(() -> new NotFoundException("Запроса с id " + requestId + " не существует"));
+        Optional<ItemRequest> foundRequest = itemRequestRepository.findByIdForUser(requestId, userId);
+        if (foundRequest.isEmpty()) {
+            checkUserExistence(userId);
+            throw new NotFoundException("Запроса с id " + requestId + " не существует");
+        }
+        ItemRequest itemRequest = foundRequest.get();
 
         List<Item> items = itemRepository.findAllByRequestId(requestId);
         List<ItemDto> itemDtos = itemMapper.convertListItem(items);
@@ -84,6 +96,12 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 .orElseThrow(() -> new NotFoundException("Пользователя с id " + userId + " не существует"));
     }
 
+    private void checkUserExistence(long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователя с id " + userId + " не существует");
+        }
+    }
+
     private List<ItemRequestDto> composeItemRequestDtoList(List<ItemRequest> itemRequests) {
         List<Long> requestsId = itemRequests.stream()
                 .map(ItemRequest::getId)
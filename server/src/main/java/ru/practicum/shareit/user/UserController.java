@@ -25,7 +25,7 @@ public class UserController {
     public List<UserDto> getAll() {
         log.info("Получен запрос на список всех пользователей");
         List<UserDto> result = userService.getAll();
-        log.info("Список пользователей сформирован: {}", result);
+        log.info("Список пользователей сформирован, пользователей: {}", result.size());
         return result;
     }
 
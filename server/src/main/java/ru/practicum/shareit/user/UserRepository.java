@@ -2,5 +2,10 @@ package ru.practicum.shareit.user;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+import java.util.Optional;
+
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+    // Снимок из кэша, см. UserRepositoryCustomImpl
+    @Override
+    Optional<User> findById(Long id);
 }
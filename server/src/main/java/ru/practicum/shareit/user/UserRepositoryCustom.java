@@ -0,0 +1,7 @@
+package ru.practicum.shareit.user;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+    Optional<User> findById(Long id);
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.user;
+
+import lombok.Value;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import ru.practicum.shareit.config.CacheConfig;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Optional;
+
+// Поиск пользователя по id через кэш users. Каждый вызов получает отсоединенную копию,
+// изменения сохраняются только через save
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+    private final Cache users;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public UserRepositoryCustomImpl(ObjectProvider<CacheManager> cacheManager) {
+        // Без CacheConfig, как в срезах @DataJpaTest, поиск идет прямо в базу
+        this.users = cacheManager.getIfAvailable(NoOpCacheManager::new).getCache(CacheConfig.USERS);
+    }
+
+    @Override
+    public Optional<User> findById(Long id) {
+        Snapshot snapshot = users.get(id, Snapshot.class);
+        if (snapshot == null) {
+            User user = entityManager.find(User.class, id);
+            if (user == null) {
+                return Optional.empty();
+            }
+            snapshot = new Snapshot(user.getId(), user.getName(), user.getEmail());
+            users.put(id, snapshot);
+        }
+        return Optional.of(User.builder()
+                .id(snapshot.id)
+                .name(snapshot.name)
+                .email(snapshot.email)
+                .build());
+    }
+
+    @Value
+    private static class Snapshot {
+        Long id;
+        String name;
+        String email;
+    }
+}
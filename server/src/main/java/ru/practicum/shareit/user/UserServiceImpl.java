@@ -1,7 +1,10 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
@@ -9,6 +12,7 @@ import ru.practicum.shareit.user.dto.UserUpdateDto;
 import java.util.List;
 
 @Service
+@Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
@@ -25,11 +29,14 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public UserDto create(UserDto userDto) {
         return userMapper.convertUser(userRepository.save(userMapper.convertUserDto(userDto)));
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userDto.id")
     public UserUpdateDto update(UserUpdateDto userDto) {
         User newUser = userMapper.convertUserUpdateDto(userDto);
         User existentUser = userRepository.findById(newUser.getId())
@@ -48,6 +55,8 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId")
     public void delete(long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователя с id " + userId + " не существует"));
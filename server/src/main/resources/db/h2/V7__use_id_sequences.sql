@@ -0,0 +1,20 @@
+-- То же, что db/postgresql/V7, в синтаксисе H2
+ALTER TABLE users ALTER COLUMN user_id DROP IDENTITY;
+ALTER TABLE users ALTER COLUMN user_id SET DEFAULT NEXT VALUE FOR users_seq;
+ALTER SEQUENCE users_seq RESTART WITH (SELECT COALESCE(MAX(user_id), 0) + 1 FROM users);
+
+ALTER TABLE requests ALTER COLUMN request_id DROP IDENTITY;
+ALTER TABLE requests ALTER COLUMN request_id SET DEFAULT NEXT VALUE FOR requests_seq;
+ALTER SEQUENCE requests_seq RESTART WITH (SELECT COALESCE(MAX(request_id), 0) + 1 FROM requests);
+
+ALTER TABLE items ALTER COLUMN item_id DROP IDENTITY;
+ALTER TABLE items ALTER COLUMN item_id SET DEFAULT NEXT VALUE FOR items_seq;
+ALTER SEQUENCE items_seq RESTART WITH (SELECT COALESCE(MAX(item_id), 0) + 1 FROM items);
+
+ALTER TABLE bookings ALTER COLUMN booking_id DROP IDENTITY;
+ALTER TABLE bookings ALTER COLUMN booking_id SET DEFAULT NEXT VALUE FOR bookings_seq;
+ALTER SEQUENCE bookings_seq RESTART WITH (SELECT COALESCE(MAX(booking_id), 0) + 1 FROM bookings);
+
+ALTER TABLE comments ALTER COLUMN comment_id DROP IDENTITY;
+ALTER TABLE comments ALTER COLUMN comment_id SET DEFAULT NEXT VALUE FOR comments_seq;
+ALTER SEQUENCE comments_seq RESTART WITH (SELECT COALESCE(MAX(comment_id), 0) + 1 FROM comments);
@@ -0,0 +1,22 @@
+-- Бронирования арендатора: findAllForBooker, постраничный поиск после курсора findAllByBookerIdAfter
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC, booking_id DESC);
+-- Бронирования арендатора по статусу: findAllForBooker с состояниями WAITING, APPROVED, REJECTED
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, status, start_date DESC);
+-- Бронирования вещи: findAllByItemIdAndStatus*, findLastAndNextByItemsIdAndStatus
+-- и выборки владельца через items
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+-- Проверка права на отзыв: existsByBookerIdAndItemIdAndStatusAndEndDateIsBefore
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_item_status_end ON bookings (booker_id, item_id, status, end_date);
+
+-- Вещи владельца с сортировкой по id: findAllByOwnerId, findAllForOwner, findAllByItemOwnerIdAfter
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id, item_id);
+-- Вещи по запросам: findAllByRequestId, findAllByRequestsId
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+
+-- Отзывы к вещи, новые первыми: findAllByItemId, findLastIdsByItemsId
+CREATE INDEX IF NOT EXISTS idx_comments_item_created ON comments (item_id, created DESC);
+
+-- Запросы пользователя: findAllByRequesterId
+CREATE INDEX IF NOT EXISTS idx_requests_requester_created ON requests (requester_id, created);
+-- Чужие запросы по дате создания: findAllByRequesterIdIsNot
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (created);
@@ -0,0 +1,8 @@
+-- Идентификаторы выдаются Hibernate блоками по 50 (оптимизатор pooled-lo): значение последовательности
+-- это первый идентификатор блока. Без IDENTITY вставки можно объединять в пакеты JDBC.
+-- Начальные значения и значения по умолчанию для столбцов задаются в миграции V7 для каждой СУБД.
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
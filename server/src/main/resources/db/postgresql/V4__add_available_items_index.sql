@@ -0,0 +1,2 @@
+-- Поиск вещей (ItemRepository.search): сначала отбираются только доступные вещи
+CREATE INDEX IF NOT EXISTS idx_items_available ON items (is_available) WHERE is_available;
@@ -0,0 +1,29 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- До этой миграции пересекающиеся подтвержденные бронирования не запрещались. Если они есть,
+-- миграция останавливается с их списком: какое из бронирований отклонить, решается вручную, например
+-- UPDATE bookings SET status = 'REJECTED' WHERE booking_id IN (...); после этого миграцию нужно повторить
+DO
+$$
+    DECLARE
+        overlaps TEXT;
+    BEGIN
+        SELECT string_agg(a.booking_id || '/' || b.booking_id, ', ')
+        INTO overlaps
+        FROM bookings a
+                 JOIN bookings b ON b.item_id = a.item_id AND b.booking_id > a.booking_id
+        WHERE a.status = 'APPROVED'
+          AND b.status = 'APPROVED'
+          AND a.start_date < b.end_date
+          AND b.start_date < a.end_date;
+        IF overlaps IS NOT NULL THEN
+            RAISE EXCEPTION 'Пересекающиеся подтвержденные бронирования (id/id): %', overlaps;
+        END IF;
+    END
+$$;
+
+-- Подтвержденные бронирования одной вещи не должны пересекаться (интервалы [начало, конец))
+ALTER TABLE bookings
+    ADD CONSTRAINT ex_bookings_item_approved
+        EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+        WHERE (status = 'APPROVED');
@@ -0,0 +1,26 @@
+-- Последовательности продолжают уже выданные идентификаторы. Вставка без id в обход Hibernate
+-- берет значение по умолчанию и тем самым целый блок, поэтому не пересекается с его блоками.
+SELECT setval('users_seq', COALESCE((SELECT MAX(user_id) FROM users), 0) + 1, false);
+ALTER TABLE users ALTER COLUMN user_id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN user_id SET DEFAULT nextval('users_seq');
+ALTER SEQUENCE users_seq OWNED BY users.user_id;
+
+SELECT setval('requests_seq', COALESCE((SELECT MAX(request_id) FROM requests), 0) + 1, false);
+ALTER TABLE requests ALTER COLUMN request_id DROP IDENTITY IF EXISTS;
+ALTER TABLE requests ALTER COLUMN request_id SET DEFAULT nextval('requests_seq');
+ALTER SEQUENCE requests_seq OWNED BY requests.request_id;
+
+SELECT setval('items_seq', COALESCE((SELECT MAX(item_id) FROM items), 0) + 1, false);
+ALTER TABLE items ALTER COLUMN item_id DROP IDENTITY IF EXISTS;
+ALTER TABLE items ALTER COLUMN item_id SET DEFAULT nextval('items_seq');
+ALTER SEQUENCE items_seq OWNED BY items.item_id;
+
+SELECT setval('bookings_seq', COALESCE((SELECT MAX(booking_id) FROM bookings), 0) + 1, false);
+ALTER TABLE bookings ALTER COLUMN booking_id DROP IDENTITY IF EXISTS;
+ALTER TABLE bookings ALTER COLUMN booking_id SET DEFAULT nextval('bookings_seq');
+ALTER SEQUENCE bookings_seq OWNED BY bookings.booking_id;
+
+SELECT setval('comments_seq', COALESCE((SELECT MAX(comment_id) FROM comments), 0) + 1, false);
+ALTER TABLE comments ALTER COLUMN comment_id DROP IDENTITY IF EXISTS;
+ALTER TABLE comments ALTER COLUMN comment_id SET DEFAULT nextval('comments_seq');
+ALTER SEQUENCE comments_seq OWNED BY comments.comment_id;
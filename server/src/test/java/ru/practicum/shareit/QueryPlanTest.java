@@ -0,0 +1,337 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingStateDto;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.page.SeekPage;
+import ru.practicum.shareit.request.ItemRequestRepository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+// EXPLAIN для SQL каждого запроса репозиториев: ни одна таблица не должна читаться полным просмотром.
+// Для запросов списков бронирований и отзывов проверяются также соединяемые таблицы и число столбцов
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.QueryPlanTest$CapturingInspector")
+public class QueryPlanTest {
+    private static final String TABLE_SCAN = "tableScan";
+    private static final Pattern TABLE = Pattern.compile("(?:from|join)\\s+(\\w+)\\s+\\w+");
+    private static final Pattern COLUMN = Pattern.compile("\\sas\\s");
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    private final PageRequest page = PageRequest.of(0, 10, Sort.by("startDate").descending());
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setup() {
+        CapturingInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void getByIdAndBookerIdOrItemOwnerId_thenIndexUsed() {
+        bookingRepository.getByIdAndBookerIdOrItemOwnerId(1L, 1L);
+
+        assertNoTableScan();
+    }
+
+    @Test
+    void findAllForBooker_thenIndexUsedForEveryState() {
+        for (BookingStateDto state : BookingStateDto.values()) {
+            bookingRepository.findAllForBooker(1L, state, now, page);
+        }
+
+        assertNoTableScan();
+    }
+
+    @Test
+    void findAllForOwner_thenIndexUsedForEveryState() {
+        for (BookingStateDto state : BookingStateDto.values()) {
+            bookingRepository.findAllForOwner(1L, state, now, page);
+        }
+
+        assertNoTableScan();
+    }
+
+    @Test
+    void findAllForBookerAndOwner_thenOneStatementPerShape() {
+        // Пользователь, дата и страница передаются параметрами, статусы одного вида дают один и тот же запрос
+        for (BookingStateDto state : BookingStateDto.values()) {
+            bookingRepository.findAllForBooker(1L, state, now, page);
+            bookingRepository.findAllForBooker(2L, state, now.plusDays(1), PageRequest.of(3, 10, page.getSort()));
+        }
+        assertStatementShapes(5);
+
+        CapturingInspector.STATEMENTS.clear();
+        for (BookingStateDto state : BookingStateDto.values()) {
+            bookingRepository.findAllForOwner(1L, state, now, page);
+            bookingRepository.findAllForOwner(2L, state, now.plusDays(1), PageRequest.of(3, 10, page.getSort()));
+        }
+        assertStatementShapes(5);
+    }
+
+    @Test
+    void findLastAndNextByItemsIdAndStatus_thenIndexUsed() {
+        bookingRepository.findLastAndNextByItemsIdAndStatus(List.of(1L, 2L), BookingState.APPROVED.name(), now);
+
+        assertNoTableScan();
+    }
+
+    @Test
+    void findAllByItemIdAndStatus_thenIndexUsed() {
+        bookingRepository.findAllByItemIdAndStatus(1L, BookingState.APPROVED);
+
+        assertNoTableScan();
+    }
+
+    @Test
+    void findAllByItemIdAndStatusAndEndDateAfter_thenIndexUsed() {
+        bookingRepository.findAllByItemIdAndStatusAndEndDateAfter(1L, BookingState.APPROVED, now);
+
+        assertNoTableScan();
+    }
+
+    @Test
+    void existsOverlapping_thenIndexUsed() {
+        bookingRepository.existsOverlapping(1L, BookingState.APPROVED, now, now.plusDays(1));
+
+        assertNoTableScan();
+    }
+
+    @Test
+    void existsByBookerIdAndItemIdAndStatusAndEndDateIsBefore_thenIndexUsed() {
+        bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndDateIsBefore(1L, 1L,
+                BookingState.APPROVED, now);
+
+        assertNoTableScan();
+    }
+
+    @Test
+    void findAllByBookerIdAfter_thenIndexUsed() {
+        bookingRepository.findAllByBookerIdAfter(1L, BookingStateDto.ALL, now, new SeekPage(now, 1L, 10));
+
+        assertNoTableScan();
+    }
+
+    @Test
+    void findAllByItemOwnerIdAfter_thenIndexUsed() {
+        bookingRepository.findAllByItemOwnerIdAfter(1L, BookingStateDto.ALL, now, new SeekPage(now, 1L, 10));
+
+        assertNoTableScan();
+    }
+
+    @Test
+    void findAllByOwnerId_thenIndexUsed() {
+        itemRepository.findAllByOwnerId(1L, PageRequest.of(0, 10, Sort.by("id")));
+
+        assertNoTableScan();
+    }
+
+    @Test
+    void findAllByRequestsId_thenIndexUsed() {
+        itemRepository.findAllByRequestsId(List.of(1L, 2L));
+
+        assertNoTableScan();
+    }
+
+    @Test
+    void findAllByRequestId_thenIndexUsed() {
+        itemRepository.findAllByRequestId(1L);
+
+        assertNoTableScan();
+    }
+
+    @Test
+    void commentsFindAllByItemId_thenIndexUsed() {
+        commentRepository.findAllByItemId(1L, PageRequest.of(0, 10, Sort.by("created").descending()));
+
+        assertNoTableScan();
+    }
+
+    @Test
+    void commentsFindLastIdsByItemsId_thenIndexUsed() {
+        commentRepository.findLastIdsByItemsId(List.of(1L, 2L), 10);
+
+        assertNoTableScan();
+    }
+
+    @Test
+    void findAllByRequesterId_thenIndexUsed() {
+        itemRequestRepository.findAllByRequesterId(1L, Sort.by("created").descending());
+
+        assertNoTableScan();
+    }
+
+    @Test
+    void findByIdForUser_thenIndexUsed() {
+        itemRequestRepository.findByIdForUser(1L, 1L);
+
+        assertNoTableScan();
+    }
+
+    @Test
+    void findAllByRequesterIdIsNot_thenScanOnlyRequests() {
+        // Неравенство не сужается индексом: просматриваются все запросы, а на Postgres
+        // сортировку с LIMIT обслуживает idx_requests_created
+        itemRequestRepository.findAllByRequesterIdIsNot(1L,
+                PageRequest.of(0, 10, Sort.by("created").descending()));
+
+        List<String> plans = explainCaptured();
+        assertThat(plans.size(), is(1));
+        assertThat(plans.get(0), containsString("REQUESTS.tableScan"));
+    }
+
+    @Test
+    void getBooking_thenBookingItemAndBookerFetched() {
+        bookingRepository.getByIdAndBookerIdOrItemOwnerId(1L, 1L);
+
+        assertFetched(List.of("bookings", "items", "users"), 15);
+    }
+
+    @Test
+    void confirmBooking_thenBookingItemAndBookerFetched() {
+        bookingRepository.findWithItemAndBookerById(1L);
+
+        assertFetched(List.of("bookings", "items", "users"), 15);
+    }
+
+    @Test
+    void getBookingsForBooker_thenOnlyBookingViewColumnsFetched() {
+        bookingRepository.findAllForBooker(1L, BookingStateDto.ALL, now, page);
+
+        assertFetched(List.of("bookings", "items", "users"), 12);
+    }
+
+    @Test
+    void getBookingsForOwner_thenOnlyBookingViewColumnsFetched() {
+        bookingRepository.findAllForOwner(1L, BookingStateDto.ALL, now, page);
+
+        assertFetched(List.of("bookings", "items", "users", "items"), 12);
+    }
+
+    @Test
+    void getBookingsForBookerAfterCursor_thenOnlyBookingViewColumnsFetched() {
+        bookingRepository.findAllByBookerIdAfter(1L, BookingStateDto.ALL, now, new SeekPage(now, 1L, 10));
+
+        assertFetched(List.of("bookings", "items", "users"), 12);
+    }
+
+    @Test
+    void getComments_thenCommentAndAuthorFetched() {
+        commentRepository.findAllByItemId(1L, PageRequest.of(0, 10, Sort.by("created").descending()));
+
+        assertFetched(List.of("comments", "users"), 8);
+    }
+
+    @Test
+    void getItemComments_thenCommentAndAuthorFetched() {
+        commentRepository.findAllByIds(List.of(1L, 2L));
+
+        assertFetched(List.of("comments", "users"), 8);
+    }
+
+    private void assertNoTableScan() {
+        List<String> plans = explainCaptured();
+        assertThat(plans.isEmpty(), is(false));
+        for (String plan : plans) {
+            assertThat(plan, not(containsString(TABLE_SCAN)));
+        }
+    }
+
+    // Таблицы из from и join всего запроса, включая подзапросы, и число колонок внешнего select.
+    // Порядок соединений для графа сущностей не определен, поэтому таблицы сравниваются отсортированными
+    private void assertFetched(List<String> tables, int columns) {
+        assertThat(CapturingInspector.STATEMENTS.size(), is(1));
+        String sql = CapturingInspector.STATEMENTS.get(0);
+        List<String> joined = new ArrayList<>();
+        Matcher table = TABLE.matcher(sql);
+        while (table.find()) {
+            joined.add(table.group(1));
+        }
+        Matcher column = COLUMN.matcher(sql.substring(0, sql.indexOf(" from ")));
+        int selected = 0;
+        while (column.find()) {
+            selected++;
+        }
+        List<String> expected = new ArrayList<>(tables);
+        expected.sort(null);
+        joined.sort(null);
+        assertThat(joined, is(expected));
+        assertThat(selected, is(columns));
+    }
+
+    // Первая и следующие страницы различаются только наличием offset, поэтому сравниваются запросы без него
+    private void assertStatementShapes(int shapes) {
+        Set<String> distinct = new HashSet<>();
+        for (String sql : CapturingInspector.STATEMENTS) {
+            distinct.add(sql.replace(" offset ?", ""));
+        }
+        assertThat(distinct.size(), is(shapes));
+        for (String sql : distinct) {
+            assertThat(sql, not(containsString("'")));
+        }
+    }
+
+    private List<String> explainCaptured() {
+        List<String> plans = new ArrayList<>();
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            for (String sql : CapturingInspector.STATEMENTS) {
+                try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql);
+                     ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    plans.add(resultSet.getString(1));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+        return plans;
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
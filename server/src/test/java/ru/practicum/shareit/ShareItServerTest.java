@@ -13,7 +13,8 @@ class ShareItServerTest {
 
 	@Test
 	void contextLoads() {
-		ConfigurableEnvironment environment = new MockEnvironment();
+		ConfigurableEnvironment environment = new MockEnvironment()
+				.withProperty("shareit.search.engine", "like");
 		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
 		context.setEnvironment(environment);
 		context.register(ShareItServer.class);
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+
+// Пакет на 64 вещи задевает все полосы блокировок, но не должен задерживать одиночное бронирование другой вещи.
+// В отдельной базе, так как данные фиксируются
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:booking-batch-lock")
+@DirtiesContext
+public class BookingBatchLockTest {
+    private static final int BATCH_ITEMS = 64;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void create_whenBatchNotCommitted_thenNotBlocked() throws Exception {
+        User owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@batch.email")
+                .build());
+        User booker = userRepository.save(User.builder()
+                .name("booker")
+                .email("booker@batch.email")
+                .build());
+        List<BookingCreateDto> batch = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < BATCH_ITEMS; i++) {
+            batch.add(BookingCreateDto.builder()
+                    .itemId(saveItem(owner, "batch item " + i).getId())
+                    .start(start)
+                    .end(start.plusDays(1))
+                    .build());
+        }
+        Item unrelated = saveItem(owner, "unrelated item");
+
+        CountDownLatch batchChecked = new CountDownLatch(1);
+        CountDownLatch commitBatch = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<List<BookingBatchResultDto>> batchResult = executor.submit(() ->
+                transactionTemplate.execute(status -> {
+                    List<BookingBatchResultDto> results = bookingService.createAll(booker.getId(), batch);
+                    batchChecked.countDown();
+                    try {
+                        commitBatch.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return results;
+                }));
+        try {
+            assertThat(batchChecked.await(10, TimeUnit.SECONDS), is(true));
+
+            BookingDto created = executor.submit(() ->
+                    bookingService.create(BookingCreateDto.builder()
+                            .bookerId(booker.getId())
+                            .itemId(unrelated.getId())
+                            .start(start)
+                            .end(start.plusDays(1))
+                            .build())).get(10, TimeUnit.SECONDS);
+
+            assertThat(created.getId(), notNullValue());
+        } finally {
+            commitBatch.countDown();
+        }
+        assertThat(batchResult.get(10, TimeUnit.SECONDS), everyItem(hasProperty("status", is(201))));
+        executor.shutdown();
+    }
+
+    private Item saveItem(User owner, String name) {
+        return itemRepository.save(Item.builder()
+                .name(name)
+                .description("batch item")
+                .available(true)
+                .owner(owner)
+                .build());
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingConflictGuardTest {
+    private static final long ITEM_ID = 1L;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private BookingConflictGuard bookingConflictGuard;
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setup() {
+        bookingConflictGuard = new BookingConflictGuard(bookingRepository, "maximumSize=100");
+    }
+
+    @Test
+    void overlapsApproved_whenCalledTwice_thenOnlyUnfinishedLoadedOnce() {
+        when(bookingRepository.findAllByItemIdAndStatusAndEndDateAfter(eq(ITEM_ID), eq(BookingState.APPROVED),
+                any(LocalDateTime.class)))
+                .thenReturn(List.of(approved(10L, now.plusDays(1), now.plusDays(3))));
+
+        assertThat(bookingConflictGuard.overlapsApproved(ITEM_ID, now.plusDays(2), now.plusDays(4)), is(true));
+        assertThat(bookingConflictGuard.overlapsApproved(ITEM_ID, now.plusDays(3), now.plusDays(4)), is(false));
+
+        verify(bookingRepository, times(1)).findAllByItemIdAndStatusAndEndDateAfter(eq(ITEM_ID),
+                eq(BookingState.APPROVED), any(LocalDateTime.class));
+        verify(bookingRepository, never()).findAllByItemIdAndStatus(anyLong(), any(BookingState.class));
+        verify(bookingRepository, never()).existsOverlapping(anyLong(), any(BookingState.class),
+                any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void overlapsApproved_whenBookingStartedBeforeCache_thenCheckedInDatabase() {
+        LocalDateTime start = now.minusDays(2);
+        LocalDateTime end = now.plusDays(1);
+        when(bookingRepository.existsOverlapping(ITEM_ID, BookingState.APPROVED, start, end)).thenReturn(true);
+
+        assertThat(bookingConflictGuard.overlapsApproved(ITEM_ID, start, end), is(true));
+
+        verify(bookingRepository, times(1)).existsOverlapping(ITEM_ID, BookingState.APPROVED, start, end);
+    }
+
+    private static Booking approved(long id, LocalDateTime start, LocalDateTime end) {
+        return Booking.builder()
+                .id(id)
+                .item(Item.builder().id(ITEM_ID).build())
+                .status(BookingState.APPROVED)
+                .startDate(start)
+                .endDate(end)
+                .build();
+    }
+}
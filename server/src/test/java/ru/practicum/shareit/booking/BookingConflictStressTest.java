@@ -0,0 +1,139 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+// Потоки одновременно создают и подтверждают пересекающиеся бронирования, каждая операция в своей транзакции.
+// В отдельной базе, так как данные фиксируются
+@Slf4j
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:booking-stress")
+@DirtiesContext
+public class BookingConflictStressTest {
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 100;
+    private static final int ITEMS = 4;
+    private static final int DAYS = 60;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User owner;
+    private final List<User> bookers = new ArrayList<>();
+    private final List<Item> items = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@stress.email")
+                .build());
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(userRepository.save(User.builder()
+                    .name("booker " + i)
+                    .email("booker" + i + "@stress.email")
+                    .build()));
+        }
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(itemRepository.save(Item.builder()
+                    .name("item " + i)
+                    .description("stress item")
+                    .available(true)
+                    .owner(owner)
+                    .build()));
+        }
+    }
+
+    @Test
+    void createAndApprove_whenConcurrent_thenNoApprovedBookingsOverlap() throws Exception {
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (User booker : bookers) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    LocalDateTime from = base.plusHours(random.nextInt(DAYS * 24));
+                    BookingCreateDto request = BookingCreateDto.builder()
+                            .bookerId(booker.getId())
+                            .itemId(items.get(random.nextInt(ITEMS)).getId())
+                            .start(from)
+                            .end(from.plusHours(1 + random.nextInt(72)))
+                            .build();
+                    try {
+                        BookingDto created = transactionTemplate.execute(status -> bookingService.create(request));
+                        transactionTemplate.executeWithoutResult(status ->
+                                bookingService.confirmReject(owner.getId(), created.getId(), "true"));
+                        approved.incrementAndGet();
+                    } catch (IllegalArgumentException e) {
+                        conflicts.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        executor.shutdown();
+
+        log.info("Попыток {}, подтверждено {}, отклонено из-за пересечений {}, за {} мс",
+                THREADS * ATTEMPTS_PER_THREAD, approved.get(), conflicts.get(), millis);
+        assertThat(approved.get(), greaterThan(0));
+        assertThat(conflicts.get(), greaterThan(0));
+        int approvedInDb = 0;
+        for (Item item : items) {
+            List<Booking> bookings = bookingRepository.findAllByItemIdAndStatus(item.getId(), BookingState.APPROVED);
+            bookings.sort(Comparator.comparing(Booking::getStartDate));
+            for (int i = 1; i < bookings.size(); i++) {
+                Booking previous = bookings.get(i - 1);
+                Booking next = bookings.get(i);
+                assertThat(previous.getId() + " и " + next.getId() + " пересекаются",
+                        previous.getEndDate().isAfter(next.getStartDate()), is(false));
+            }
+            approvedInDb += bookings.size();
+        }
+        assertThat(approved.get(), is(approvedInDb));
+    }
+}
@@ -11,12 +11,14 @@ import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.bind.MissingServletRequestParameterException;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingStateDto;
 import ru.practicum.shareit.constant.Constants;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.page.OffsetPage;
+import ru.practicum.shareit.page.SeekPage;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.nio.charset.StandardCharsets;
@@ -28,6 +30,7 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -45,7 +48,8 @@ public class BookingControllerTest {
     private UserDto userDto;
     private UserDto userDto2;
     private ItemDto itemDto;
-    private final Sort sort = Sort.by("startDate").descending();
+    private final Sort sort = Sort.by("startDate").descending()
+            .and(Sort.by("id").descending());
     private final Pageable page = new OffsetPage(0, 10, sort);
 
 
@@ -106,6 +110,29 @@ public class BookingControllerTest {
         verify(bookingService, times(1)).create(bookingCreateDto);
     }
 
+    @Test
+    void createAll_whenSuccessful_thenReturnResultPerEntry() throws Exception {
+        BookingCreateDto otherItem = bookingCreateDto.toBuilder().itemId(2L).build();
+        List<BookingBatchResultDto> results = List.of(
+                BookingBatchResultDto.builder().status(201).booking(bookingDto).build(),
+                BookingBatchResultDto.builder().status(404).error("вещи с id 2 не существует").build());
+        when(bookingService.createAll(userDto2.getId(), List.of(bookingCreateDto, otherItem))).thenReturn(results);
+
+        mvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(List.of(bookingCreateDto, otherItem)))
+                        .header(Constants.USER_HEADER, userDto2.getId())
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is(201)))
+                .andExpect(jsonPath("$[0].booking.id", is(bookingDto.getId()), Long.class))
+                .andExpect(jsonPath("$[1].status", is(404)))
+                .andExpect(jsonPath("$[1].error", is("вещи с id 2 не существует")));
+
+        verify(bookingService, times(1)).createAll(userDto2.getId(), List.of(bookingCreateDto, otherItem));
+    }
+
     @Test
     void confirmReject_whenSuccessful_thenReturnConfirmedBookingDto() throws Exception {
         bookingDto.setStatus(BookingStateDto.APPROVED);
@@ -203,4 +230,58 @@ public class BookingControllerTest {
         verify(bookingService, times(1))
                 .getAllForOwner(userDto.getId(), BookingStateDto.WAITING, page);
     }
+
+    @Test
+    void getAll_whenCursorGiven_thenReturnPageAfterCursor() throws Exception {
+        SeekPage seekPage = new SeekPage(LocalDateTime.of(2023, 1, 1, 10, 0), 15L, 1);
+        when(bookingService
+                .getAllForBooker(userDto2.getId(), BookingStateDto.WAITING, seekPage))
+                .thenReturn(List.of(bookingDto));
+
+        mvc.perform(get("/bookings?state=WAITING&from=0&size=1&after=2023-01-01T10:00,15")
+                        .header(Constants.USER_HEADER, userDto2.getId())
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].id", is(bookingDto.getId()), Long.class))
+                .andExpect(header().string(Constants.NEXT_CURSOR_HEADER,
+                        SeekPage.cursorOf(bookingDto.getStart(), bookingDto.getId())));
+        verify(bookingService, times(1))
+                .getAllForBooker(userDto2.getId(), BookingStateDto.WAITING, seekPage);
+        verify(bookingService, never())
+                .getAllForBooker(anyLong(), any(BookingStateDto.class), any(Pageable.class));
+    }
+
+    @Test
+    void getAllByOwner_whenCursorGiven_thenReturnPageAfterCursor() throws Exception {
+        SeekPage seekPage = new SeekPage(LocalDateTime.of(2023, 1, 1, 10, 0), 15L, 10);
+        when(bookingService
+                .getAllForOwner(userDto.getId(), BookingStateDto.ALL, seekPage))
+                .thenReturn(List.of(bookingDto));
+
+        mvc.perform(get("/bookings/owner?state=ALL&from=0&size=10&after=2023-01-01T10:00,15")
+                        .header(Constants.USER_HEADER, userDto.getId())
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].id", is(bookingDto.getId()), Long.class))
+                .andExpect(header().doesNotExist(Constants.NEXT_CURSOR_HEADER));
+        verify(bookingService, times(1))
+                .getAllForOwner(userDto.getId(), BookingStateDto.ALL, seekPage);
+    }
+
+    @Test
+    void getAll_whenMalformedCursor_thenThrownException() throws Exception {
+        mvc.perform(get("/bookings?state=ALL&from=0&size=10&after=2023-01-01T10:00")
+                        .header(Constants.USER_HEADER, userDto2.getId())
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertInstanceOf(IllegalArgumentException.class,
+                        result.getResolvedException()));
+        verifyNoInteractions(bookingService);
+    }
 }
@@ -1,21 +1,28 @@
 package ru.practicum.shareit.booking;
 
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.dto.BookingStateDto;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.page.SeekPage;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.is;
 
 @DataJpaTest
@@ -26,6 +33,8 @@ public class BookingRepositoryTest {
     private ItemRepository itemRepository;
     @Autowired
     private BookingRepository bookingRepository;
+    @Autowired
+    private EntityManager entityManager;
 
     private User user;
     private User user2;
@@ -35,6 +44,7 @@ public class BookingRepositoryTest {
     private Booking booking2;
     private final Sort sort = Sort.by("id").descending();
     private final PageRequest page = PageRequest.of(0, 10, sort);
+    private final LocalDateTime farFuture = LocalDateTime.of(3000, 1, 1, 0, 0);
 
     @BeforeEach
     void setup() {
@@ -89,106 +99,244 @@ public class BookingRepositoryTest {
     }
 
     @Test
-    void findAllByBookerId_whenFound_thenReturnPageOfBookings() {
-        List<Booking> actualPageOfBookings = bookingRepository.findAllByBookerId(user2.getId(), page);
+    void findAllForBooker_whenAll_thenReturnPageOfBookings() {
+        List<BookingView> actualPageOfBookings = bookingRepository
+                .findAllForBooker(user2.getId(), BookingStateDto.ALL, LocalDateTime.now(), page);
 
-        assertThat(List.of(booking), is(actualPageOfBookings));
+        assertThat(List.of(booking.getId()), is(ids(actualPageOfBookings)));
     }
 
     @Test
-    void findAllByBookerIdAndStartDateAfter_whenFound_thenReturnOptionalOfBooking() {
-        List<Booking> actualPageOfBookings = bookingRepository
-                .findAllByBookerIdAndStartDateAfter(user2.getId(), LocalDateTime.now().minusDays(2), page);
+    void findAllForBooker_whenFuture_thenReturnPageOfBookings() {
+        List<BookingView> actualPageOfBookings = bookingRepository
+                .findAllForBooker(user2.getId(), BookingStateDto.FUTURE, LocalDateTime.now().minusDays(2), page);
 
-        assertThat(List.of(booking), is(actualPageOfBookings));
+        assertThat(List.of(booking.getId()), is(ids(actualPageOfBookings)));
     }
 
     @Test
-    void findAllByBookerIdAndEndDateIsBefore_whenFound_thenReturnOptionalOfBooking() {
-        List<Booking> actualPageOfBookings = bookingRepository
-                .findAllByBookerIdAndEndDateIsBefore(user2.getId(), LocalDateTime.now().plusDays(2), page);
+    void findAllForBooker_whenPast_thenReturnPageOfBookings() {
+        List<BookingView> actualPageOfBookings = bookingRepository
+                .findAllForBooker(user2.getId(), BookingStateDto.PAST, LocalDateTime.now().plusDays(2), page);
 
-        assertThat(List.of(booking), is(actualPageOfBookings));
+        assertThat(List.of(booking.getId()), is(ids(actualPageOfBookings)));
     }
 
     @Test
-    void findAllByBookerCurrent_whenFound_thenReturnOptionalOfBooking() {
-        List<Booking> actualPageOfBookings = bookingRepository
-                .findAllByBookerCurrent(user2.getId(), LocalDateTime.now(), page);
+    void findAllForBooker_whenCurrent_thenReturnPageOfBookings() {
+        List<BookingView> actualPageOfBookings = bookingRepository
+                .findAllForBooker(user2.getId(), BookingStateDto.CURRENT, LocalDateTime.now(), page);
 
-        assertThat(List.of(booking), is(actualPageOfBookings));
+        assertThat(List.of(booking.getId()), is(ids(actualPageOfBookings)));
     }
 
     @Test
-    void findAllByBookerIdAndStatus_whenFound_thenReturnOptionalOfBooking() {
-        List<Booking> actualPageOfBookings = bookingRepository
-                .findAllByBookerIdAndStatus(user2.getId(), BookingState.APPROVED, page);
+    void findAllForBooker_whenStatus_thenReturnPageOfBookings() {
+        List<BookingView> actualPageOfBookings = bookingRepository
+                .findAllForBooker(user2.getId(), BookingStateDto.APPROVED, LocalDateTime.now(), page);
 
-        assertThat(List.of(booking), is(actualPageOfBookings));
+        assertThat(List.of(booking.getId()), is(ids(actualPageOfBookings)));
     }
 
     @Test
-    void findAllByItemOwnerId_whenFound_thenReturnOptionalOfBooking() {
-        List<Booking> actualPageOfBookings = bookingRepository
-                .findAllByItemOwnerId(user2.getId(), page);
+    void findAllForBooker_whenOtherStatus_thenReturnEmpty() {
+        List<BookingView> actualPageOfBookings = bookingRepository
+                .findAllForBooker(user2.getId(), BookingStateDto.WAITING, LocalDateTime.now(), page);
 
-        assertThat(List.of(booking2), is(actualPageOfBookings));
+        assertThat(List.of(), is(ids(actualPageOfBookings)));
     }
 
     @Test
-    void findAllByItemOwnerIdAndStartDateAfter_whenFound_thenReturnOptionalOfBooking() {
-        List<Booking> actualPageOfBookings = bookingRepository
-                .findAllByItemOwnerIdAndStartDateAfter(user2.getId(), LocalDateTime.now().minusDays(2), page);
+    void findAllForOwner_whenAll_thenReturnPageOfBookings() {
+        List<BookingView> actualPageOfBookings = bookingRepository
+                .findAllForOwner(user2.getId(), BookingStateDto.ALL, LocalDateTime.now(), page);
 
-        assertThat(List.of(booking2), is(actualPageOfBookings));
+        assertThat(List.of(booking2.getId()), is(ids(actualPageOfBookings)));
     }
 
     @Test
-    void findAllByItemOwnerIdAndEndDateIsBefore_whenFound_thenReturnOptionalOfBooking() {
-        List<Booking> actualPageOfBookings = bookingRepository
-                .findAllByItemOwnerIdAndEndDateIsBefore(user2.getId(), LocalDateTime.now().plusDays(2), page);
+    void findAllForOwner_whenFuture_thenReturnPageOfBookings() {
+        List<BookingView> actualPageOfBookings = bookingRepository
+                .findAllForOwner(user2.getId(), BookingStateDto.FUTURE, LocalDateTime.now().minusDays(2), page);
 
-        assertThat(List.of(booking2), is(actualPageOfBookings));
+        assertThat(List.of(booking2.getId()), is(ids(actualPageOfBookings)));
     }
 
     @Test
-    void findAllByOwnerCurrent_whenFound_thenReturnOptionalOfBooking() {
-        List<Booking> actualPageOfBookings = bookingRepository
-                .findAllByOwnerCurrent(user2.getId(), LocalDateTime.now(), page);
+    void findAllForOwner_whenPast_thenReturnPageOfBookings() {
+        List<BookingView> actualPageOfBookings = bookingRepository
+                .findAllForOwner(user2.getId(), BookingStateDto.PAST, LocalDateTime.now().plusDays(2), page);
 
-        assertThat(List.of(booking2), is(actualPageOfBookings));
+        assertThat(List.of(booking2.getId()), is(ids(actualPageOfBookings)));
     }
 
     @Test
-    void findAllByItemOwnerIdAndStatus_whenFound_thenReturnOptionalOfBooking() {
-        List<Booking> actualPageOfBookings = bookingRepository
-                .findAllByItemOwnerIdAndStatus(user2.getId(), BookingState.APPROVED, page);
+    void findAllForOwner_whenCurrent_thenReturnPageOfBookings() {
+        List<BookingView> actualPageOfBookings = bookingRepository
+                .findAllForOwner(user2.getId(), BookingStateDto.CURRENT, LocalDateTime.now(), page);
 
-        assertThat(List.of(booking2), is(actualPageOfBookings));
+        assertThat(List.of(booking2.getId()), is(ids(actualPageOfBookings)));
     }
 
     @Test
-    void findAllByItemId_whenFound_thenReturnOptionalOfBooking() {
-        List<Booking> actualListOfBookings = bookingRepository
-                .findAllByItemId(item.getId());
+    void findAllForOwner_whenStatus_thenReturnPageOfBookings() {
+        List<BookingView> actualPageOfBookings = bookingRepository
+                .findAllForOwner(user2.getId(), BookingStateDto.APPROVED, LocalDateTime.now(), page);
+
+        assertThat(List.of(booking2.getId()), is(ids(actualPageOfBookings)));
+    }
 
-        assertThat(List.of(booking), is(actualListOfBookings));
+    @Test
+    void findAllForBooker_whenFound_thenViewHoldsItemAndBookerWithoutManagedEntities() {
+        bookingRepository.flush();
+        entityManager.clear();
+
+        List<BookingView> actualPageOfBookings = bookingRepository
+                .findAllForBooker(user2.getId(), BookingStateDto.ALL, LocalDateTime.now(), page);
+
+        BookingView view = actualPageOfBookings.get(0);
+        assertThat(List.of(booking.getStatus(), item.getId(), item.getName(), item.getDescription()),
+                is(List.of(view.getStatus(), view.getItemId(), view.getItemName(), view.getItemDescription())));
+        assertThat(List.of(user2.getId(), user2.getName(), user2.getEmail()),
+                is(List.of(view.getBookerId(), view.getBookerName(), view.getBookerEmail())));
+        assertThat(0, is(entityManager.unwrap(Session.class).getStatistics().getEntityCount()));
+    }
+
+    @Test
+    void findLastAndNextByItemsIdAndStatus_whenSeveralPerItem_thenReturnLatestStartedAndNearestFuture() {
+        Booking older = bookingRepository.save(booking.toBuilder()
+                .id(null)
+                .startDate(LocalDateTime.now().minusDays(10))
+                .endDate(LocalDateTime.now().minusDays(9))
+                .build());
+        bookingRepository.save(booking.toBuilder()
+                .id(null)
+                .status(BookingState.REJECTED)
+                .startDate(LocalDateTime.now().minusHours(1))
+                .build());
+        Booking nearest = bookingRepository.save(booking.toBuilder()
+                .id(null)
+                .startDate(LocalDateTime.now().plusDays(2))
+                .endDate(LocalDateTime.now().plusDays(3))
+                .build());
+        bookingRepository.save(booking.toBuilder()
+                .id(null)
+                .startDate(LocalDateTime.now().plusDays(5))
+                .endDate(LocalDateTime.now().plusDays(6))
+                .build());
+
+        List<Booking> actualListOfBookings = bookingRepository.findLastAndNextByItemsIdAndStatus(
+                List.of(item.getId(), item2.getId()), BookingState.APPROVED.name(), LocalDateTime.now());
+
+        assertThat(actualListOfBookings, containsInAnyOrder(booking, booking2, nearest));
+        assertThat(actualListOfBookings.contains(older), is(false));
     }
 
     @Test
-    void findFirstByBookerIdAndItemIdAndStatusAndEndDateIsBefore_whenFound_thenReturnOptionalOfBooking() {
-        Optional<Booking> actualOptionalOfBookings = bookingRepository
-                .findFirstByBookerIdAndItemIdAndStatusAndEndDateIsBefore(user2.getId(), item.getId(),
+    void existsByBookerIdAndItemIdAndStatusAndEndDateIsBefore_whenFound_thenReturnTrue() {
+        boolean actualExists = bookingRepository
+                .existsByBookerIdAndItemIdAndStatusAndEndDateIsBefore(user2.getId(), item.getId(),
                         BookingState.APPROVED, LocalDateTime.now().plusDays(2));
 
-        assertThat(Optional.of(booking), is(actualOptionalOfBookings));
+        assertThat(true, is(actualExists));
+    }
+
+    @Test
+    void existsByBookerIdAndItemIdAndStatusAndEndDateIsBefore_whenNotFinished_thenReturnFalse() {
+        boolean actualExists = bookingRepository
+                .existsByBookerIdAndItemIdAndStatusAndEndDateIsBefore(user2.getId(), item.getId(),
+                        BookingState.APPROVED, LocalDateTime.now());
+
+        assertThat(false, is(actualExists));
+    }
+
+    @Test
+    void updateStatus_whenStatusMatches_thenUpdatedOnce() {
+        Booking waiting = bookingRepository.save(booking.toBuilder()
+                .id(null)
+                .status(BookingState.WAITING)
+                .build());
+
+        int firstUpdated = bookingRepository.updateStatus(waiting.getId(), BookingState.APPROVED, BookingState.WAITING);
+        int secondUpdated = bookingRepository.updateStatus(waiting.getId(), BookingState.REJECTED, BookingState.WAITING);
+
+        assertThat(1, is(firstUpdated));
+        assertThat(0, is(secondUpdated));
+    }
+
+    @Test
+    void updateStatusByItemOwner_whenNotOwner_thenNotUpdated() {
+        Booking waiting = bookingRepository.save(booking.toBuilder()
+                .id(null)
+                .status(BookingState.WAITING)
+                .build());
+
+        int notOwnerUpdated = bookingRepository.updateStatusByItemOwner(waiting.getId(), BookingState.REJECTED,
+                BookingState.WAITING, user2.getId());
+        int ownerUpdated = bookingRepository.updateStatusByItemOwner(waiting.getId(), BookingState.REJECTED,
+                BookingState.WAITING, user.getId());
+
+        assertThat(0, is(notOwnerUpdated));
+        assertThat(1, is(ownerUpdated));
+    }
+
+    @Test
+    void findAllByBookerIdAfter_whenSeveralPages_thenReturnPagesInOrder() {
+        Booking booking3 = booking.toBuilder()
+                .id(null)
+                .startDate(booking.getStartDate())
+                .build();
+        bookingRepository.save(booking3);
+        Booking booking4 = booking.toBuilder()
+                .id(null)
+                .startDate(booking.getStartDate().minusDays(1))
+                .build();
+        bookingRepository.save(booking4);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<BookingView> firstPage = bookingRepository.findAllByBookerIdAfter(user2.getId(), BookingStateDto.ALL,
+                now, new SeekPage(farFuture, Long.MAX_VALUE, 2));
+        BookingView lastOfFirstPage = firstPage.get(firstPage.size() - 1);
+        List<BookingView> secondPage = bookingRepository.findAllByBookerIdAfter(user2.getId(), BookingStateDto.ALL,
+                now, new SeekPage(lastOfFirstPage.getStartDate().truncatedTo(ChronoUnit.MICROS),
+                        lastOfFirstPage.getId(), 2));
+
+        assertThat(List.of(booking3.getId(), booking.getId()), is(ids(firstPage)));
+        assertThat(List.of(booking4.getId()), is(ids(secondPage)));
     }
 
     @Test
-    void findAllByItemsId_whenFound_thenReturnListOfBooking() {
-        List<Booking> actualListOfBookings = bookingRepository
-                .findAllByItemsId(List.of(item.getId()));
+    void findAllByBookerIdAfter_whenStateFilters_thenReturnMatchingBookings() {
+        SeekPage seekPage = new SeekPage(farFuture, Long.MAX_VALUE, 10);
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThat(List.of(booking.getId()), is(ids(bookingRepository
+                .findAllByBookerIdAfter(user2.getId(), BookingStateDto.CURRENT, now, seekPage))));
+        assertThat(List.of(booking.getId()), is(ids(bookingRepository
+                .findAllByBookerIdAfter(user2.getId(), BookingStateDto.APPROVED, now, seekPage))));
+        assertThat(List.of(), is(ids(bookingRepository
+                .findAllByBookerIdAfter(user2.getId(), BookingStateDto.WAITING, now, seekPage))));
+        assertThat(List.of(), is(ids(bookingRepository
+                .findAllByBookerIdAfter(user2.getId(), BookingStateDto.FUTURE, now, seekPage))));
+        assertThat(List.of(), is(ids(bookingRepository
+                .findAllByBookerIdAfter(user2.getId(), BookingStateDto.PAST, now, seekPage))));
+    }
+
+    @Test
+    void findAllByItemOwnerIdAfter_whenFound_thenReturnBookingsAfterCursor() {
+        List<BookingView> actualPageOfBookings = bookingRepository.findAllByItemOwnerIdAfter(user2.getId(),
+                BookingStateDto.ALL, LocalDateTime.now(), new SeekPage(farFuture, Long.MAX_VALUE, 10));
+        LocalDateTime storedStartDate = booking2.getStartDate().truncatedTo(ChronoUnit.MICROS);
+        List<BookingView> actualEmptyPage = bookingRepository.findAllByItemOwnerIdAfter(user2.getId(),
+                BookingStateDto.ALL, LocalDateTime.now(), new SeekPage(storedStartDate, booking2.getId(), 10));
+
+        assertThat(List.of(booking2.getId()), is(ids(actualPageOfBookings)));
+        assertThat(List.of(), is(actualEmptyPage));
+    }
 
-        assertThat(List.of(booking), is(actualListOfBookings));
+    private static List<Long> ids(List<BookingView> bookings) {
+        return bookings.stream()
+                .map(BookingView::getId)
+                .collect(Collectors.toList());
     }
 }
@@ -6,8 +6,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingStateDto;
@@ -15,6 +17,7 @@ import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.page.SeekPage;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -22,6 +25,7 @@ import ru.practicum.shareit.user.dto.UserDto;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
@@ -38,6 +42,8 @@ public class BookingServiceTest {
     private ItemRepository itemRepository;
     @Mock
     private BookingMapper bookingMapper;
+    @Mock
+    private BookingConflictGuard bookingConflictGuard;
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -199,11 +205,56 @@ public class BookingServiceTest {
         verify(bookingMapper, never()).convertBooking(any(Booking.class));
     }
 
+    @Test
+    void create_whenOverlapsApproved_thenThrownException() {
+        when(userRepository.findById(user2.getId())).thenReturn(Optional.of(user2));
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(bookingConflictGuard.overlapsApproved(item.getId(), booking.getStartDate(), booking.getEndDate()))
+                .thenReturn(true);
+
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> bookingService.create(bookingCreateDto)
+        );
+        assertThat(exception.getMessage(), is("Вещь с id " + item.getId() + " уже забронирована на период с "
+                + booking.getStartDate() + " по " + booking.getEndDate()));
+        verify(bookingConflictGuard, times(1)).lock(item.getId());
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(bookingConflictGuard, times(1)).release(item.getId());
+    }
+
+    @Test
+    void createAll_whenSomeEntriesInvalid_thenOthersSavedTogether() {
+        long missingItemId = 99L;
+        BookingCreateDto missingItem = bookingCreateDto.toBuilder().itemId(missingItemId).build();
+        when(userRepository.findById(user2.getId())).thenReturn(Optional.of(user2));
+        when(itemRepository.findAllById(List.of(item.getId(), missingItemId))).thenReturn(List.of(item));
+        when(bookingConflictGuard.withLocks(anyCollection(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        when(bookingRepository.saveAll(List.of(booking, booking))).thenReturn(List.of(bookingSaved, bookingSaved));
+        when(bookingMapper.convertBooking(bookingSaved)).thenReturn(bookingDto);
+
+        List<BookingBatchResultDto> results = bookingService.createAll(user2.getId(),
+                List.of(bookingCreateDto, missingItem, bookingCreateDto));
+
+        assertThat(List.of(201, 404, 201), is(List.of(results.get(0).getStatus(), results.get(1).getStatus(),
+                results.get(2).getStatus())));
+        assertThat(bookingDto, is(results.get(0).getBooking()));
+        assertThat("вещи с id " + missingItemId + " не существует", is(results.get(1).getError()));
+        verify(itemRepository, times(1)).findAllById(anyList());
+        verify(itemRepository, never()).findById(anyLong());
+        verify(bookingConflictGuard, times(1)).withLocks(eq(List.of(item.getId(), item.getId())), any());
+        verify(bookingConflictGuard, never()).lock(anyLong());
+        verify(bookingRepository, times(1)).saveAll(anyList());
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
     @Test
     void confirmReject_whenConfirm_thenReturnConfirmedBookingDto() {
         Booking bookingSavedApproved = bookingSaved.toBuilder().status(BookingState.APPROVED).build();
-        when(bookingRepository.findById(bookingSaved.getId())).thenReturn(Optional.of(bookingSaved));
-        when(bookingRepository.save(bookingSavedApproved)).thenReturn(bookingSavedApproved);
+        when(bookingRepository.findWithItemAndBookerById(bookingSaved.getId())).thenReturn(Optional.of(bookingSaved));
+        when(bookingRepository.updateStatus(bookingSaved.getId(), BookingState.APPROVED, BookingState.WAITING))
+                .thenReturn(1);
         bookingDto.setStatus(BookingStateDto.APPROVED);
         when(bookingMapper.convertBooking(bookingSavedApproved)).thenReturn(bookingDto);
 
@@ -211,46 +262,136 @@ public class BookingServiceTest {
                 .confirmReject(user.getId(), bookingSaved.getId(), "true");
 
         assertThat(bookingDto, is(actualBookingDto));
-        verify(bookingRepository, times(1)).findById(bookingSaved.getId());
-        verify(bookingRepository, times(1)).save(bookingSavedApproved);
+        verify(bookingRepository, times(1)).findWithItemAndBookerById(bookingSaved.getId());
+        verify(bookingConflictGuard, times(1)).lock(item.getId());
+        verify(bookingRepository, times(1))
+                .updateStatus(bookingSaved.getId(), BookingState.APPROVED, BookingState.WAITING);
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(bookingConflictGuard, times(1)).approved(bookingSavedApproved);
+        verify(bookingConflictGuard, times(1)).release(item.getId());
         verify(bookingMapper, times(1)).convertBooking(bookingSavedApproved);
     }
 
+    @Test
+    void confirmReject_whenOverlapsApproved_thenThrownException() {
+        when(bookingRepository.findWithItemAndBookerById(bookingSaved.getId())).thenReturn(Optional.of(bookingSaved));
+        when(bookingConflictGuard.overlapsApproved(item.getId(), bookingSaved.getStartDate(),
+                bookingSaved.getEndDate())).thenReturn(true);
+
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> bookingService.confirmReject(user.getId(), bookingSaved.getId(), "true")
+        );
+        assertThat(exception.getMessage(), is("Вещь с id " + item.getId() + " уже забронирована на период с "
+                + bookingSaved.getStartDate() + " по " + bookingSaved.getEndDate()));
+        verify(bookingRepository, never()).updateStatus(anyLong(), any(BookingState.class), any(BookingState.class));
+        verify(bookingConflictGuard, never()).approved(any(Booking.class));
+        verify(bookingConflictGuard, times(1)).release(item.getId());
+    }
+
+    @Test
+    void confirmReject_whenConstraintViolated_thenThrownException() {
+        when(bookingRepository.findWithItemAndBookerById(bookingSaved.getId())).thenReturn(Optional.of(bookingSaved));
+        when(bookingRepository.updateStatus(bookingSaved.getId(), BookingState.APPROVED, BookingState.WAITING))
+                .thenThrow(new DataIntegrityViolationException("ex_bookings_item_approved"));
+
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> bookingService.confirmReject(user.getId(), bookingSaved.getId(), "true")
+        );
+        assertThat(exception.getMessage(), is("Бронирование " + bookingSaved
+                + " пересекается с уже подтвержденным бронированием вещи с id " + item.getId()));
+        verify(bookingConflictGuard, never()).approved(any(Booking.class));
+        verify(bookingConflictGuard, times(1)).release(item.getId());
+    }
+
     @Test
     void confirmReject_whenReject_thenReturnRejectedBookingDto() {
-        Booking bookingSavedApproved = bookingSaved.toBuilder().status(BookingState.REJECTED).build();
-        when(bookingRepository.findById(bookingSaved.getId())).thenReturn(Optional.of(bookingSaved));
-        when(bookingRepository.save(bookingSavedApproved)).thenReturn(bookingSavedApproved);
+        Booking bookingSavedRejected = bookingSaved.toBuilder().status(BookingState.REJECTED).build();
+        when(bookingRepository.updateStatusByItemOwner(bookingSaved.getId(), BookingState.REJECTED,
+                BookingState.WAITING, user.getId())).thenReturn(1);
+        when(bookingRepository.findWithItemAndBookerById(bookingSaved.getId())).thenReturn(Optional.of(bookingSaved));
         bookingDto.setStatus(BookingStateDto.REJECTED);
-        when(bookingMapper.convertBooking(bookingSavedApproved)).thenReturn(bookingDto);
+        when(bookingMapper.convertBooking(bookingSavedRejected)).thenReturn(bookingDto);
 
         BookingDto actualBookingDto = bookingService
                 .confirmReject(user.getId(), bookingSaved.getId(), "false");
 
         assertThat(bookingDto, is(actualBookingDto));
-        verify(bookingRepository, times(1)).findById(bookingSaved.getId());
-        verify(bookingRepository, times(1)).save(bookingSavedApproved);
-        verify(bookingMapper, times(1)).convertBooking(bookingSavedApproved);
+        verify(bookingRepository, times(1)).updateStatusByItemOwner(bookingSaved.getId(), BookingState.REJECTED,
+                BookingState.WAITING, user.getId());
+        verify(bookingRepository, times(1)).findWithItemAndBookerById(bookingSaved.getId());
+        verify(bookingRepository, never()).updateStatus(anyLong(), any(BookingState.class), any(BookingState.class));
+        verify(bookingMapper, times(1)).convertBooking(bookingSavedRejected);
+    }
+
+    @Test
+    void confirmReject_whenRejectByNotOwner_thenThrownException() {
+        when(bookingRepository.updateStatusByItemOwner(bookingSaved.getId(), BookingState.REJECTED,
+                BookingState.WAITING, user2.getId())).thenReturn(0);
+        when(bookingRepository.findWithItemAndBookerById(bookingSaved.getId())).thenReturn(Optional.of(bookingSaved));
+
+        NotFoundException exception = assertThrows(
+                NotFoundException.class,
+                () -> bookingService.confirmReject(user2.getId(), bookingSaved.getId(), "false")
+        );
+        assertThat(exception.getMessage(), is("Попытка изменить статус бронирования вещи с id "
+                + bookingSaved.getItem().getId() + " пользователем с id " + user2.getId() +
+                ", не являющимся владельцем вещи "));
+        verify(bookingMapper, never()).convertBooking(any(Booking.class));
+    }
+
+    @Test
+    void confirmReject_whenRejectAlreadyRejected_thenThrownException() {
+        bookingSaved.setStatus(BookingState.REJECTED);
+        when(bookingRepository.updateStatusByItemOwner(bookingSaved.getId(), BookingState.REJECTED,
+                BookingState.WAITING, user.getId())).thenReturn(0);
+        when(bookingRepository.findWithItemAndBookerById(bookingSaved.getId())).thenReturn(Optional.of(bookingSaved));
+
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> bookingService.confirmReject(user.getId(), bookingSaved.getId(), "false")
+        );
+        assertThat(exception.getMessage(), is("Попытка повторного подтверждения или отказа в бронировании "
+                + bookingSaved));
+        verify(bookingMapper, never()).convertBooking(any(Booking.class));
+    }
+
+    @Test
+    void confirmReject_whenStatusChangedConcurrently_thenThrownException() {
+        when(bookingRepository.findWithItemAndBookerById(bookingSaved.getId())).thenReturn(Optional.of(bookingSaved));
+        when(bookingRepository.updateStatus(bookingSaved.getId(), BookingState.APPROVED, BookingState.WAITING))
+                .thenReturn(0);
+
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> bookingService.confirmReject(user.getId(), bookingSaved.getId(), "true")
+        );
+        assertThat(exception.getMessage(), is("Попытка повторного подтверждения или отказа в бронировании "
+                + bookingSaved));
+        verify(bookingConflictGuard, never()).approved(any(Booking.class));
+        verify(bookingConflictGuard, times(1)).release(item.getId());
+        verify(bookingMapper, never()).convertBooking(any(Booking.class));
     }
 
     @Test
     void confirmReject_whenItemNotFound_thenThrownException() {
         long wrongBookingId = 66L;
-        when(bookingRepository.findById(wrongBookingId)).thenReturn(Optional.empty());
+        when(bookingRepository.findWithItemAndBookerById(wrongBookingId)).thenReturn(Optional.empty());
 
         NotFoundException exception = assertThrows(
                 NotFoundException.class,
                 () -> bookingService.confirmReject(user.getId(), wrongBookingId, "true")
         );
         assertThat(exception.getMessage(), is("Бронирования с id " + wrongBookingId + " не существует"));
-        verify(bookingRepository, times(1)).findById(wrongBookingId);
-        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(bookingRepository, times(1)).findWithItemAndBookerById(wrongBookingId);
+        verify(bookingRepository, never()).updateStatus(anyLong(), any(BookingState.class), any(BookingState.class));
         verify(bookingMapper, never()).convertBooking(any(Booking.class));
     }
 
     @Test
     void confirmReject_whenUserNotOwner_thenThrownException() {
-        when(bookingRepository.findById(bookingSaved.getId())).thenReturn(Optional.of(bookingSaved));
+        when(bookingRepository.findWithItemAndBookerById(bookingSaved.getId())).thenReturn(Optional.of(bookingSaved));
 
         NotFoundException exception = assertThrows(
                 NotFoundException.class,
@@ -259,15 +400,15 @@ public class BookingServiceTest {
         assertThat(exception.getMessage(), is("Попытка изменить статус бронирования вещи с id "
                 + bookingSaved.getItem().getId() + " пользователем с id " + user2.getId() +
                 ", не являющимся владельцем вещи "));
-        verify(bookingRepository, times(1)).findById(bookingSaved.getId());
-        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(bookingRepository, times(1)).findWithItemAndBookerById(bookingSaved.getId());
+        verify(bookingRepository, never()).updateStatus(anyLong(), any(BookingState.class), any(BookingState.class));
         verify(bookingMapper, never()).convertBooking(any(Booking.class));
     }
 
     @Test
     void confirmReject_whenAlreadyConfirmed_thenThrownException() {
         bookingSaved.setStatus(BookingState.APPROVED);
-        when(bookingRepository.findById(bookingSaved.getId())).thenReturn(Optional.of(bookingSaved));
+        when(bookingRepository.findWithItemAndBookerById(bookingSaved.getId())).thenReturn(Optional.of(bookingSaved));
 
         IllegalArgumentException exception = assertThrows(
                 IllegalArgumentException.class,
@@ -275,8 +416,8 @@ public class BookingServiceTest {
         );
         assertThat(exception.getMessage(), is("Попытка повторного подтверждения или отказа в бронировании "
                 + bookingSaved));
-        verify(bookingRepository, times(1)).findById(bookingSaved.getId());
-        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(bookingRepository, times(1)).findWithItemAndBookerById(bookingSaved.getId());
+        verify(bookingRepository, never()).updateStatus(anyLong(), any(BookingState.class), any(BookingState.class));
         verify(bookingMapper, never()).convertBooking(any(Booking.class));
     }
 
@@ -328,138 +469,139 @@ public class BookingServiceTest {
 
     @Test
     void getAllForBooker_whenWaitingState_thenReturnListOfBookingDto() {
-        when(userRepository.findById(user2.getId())).thenReturn(Optional.of(user2));
-        when(bookingRepository.findAllByBookerIdAndStatus(user2.getId(), BookingState.WAITING, page))
-                .thenReturn(List.of(bookingSaved));
-        when(bookingMapper.convertBooking(bookingSaved)).thenReturn(bookingDto);
+        when(bookingRepository.findAllForBooker(eq(user2.getId()), eq(BookingStateDto.WAITING),
+                any(LocalDateTime.class), eq(page)))
+                .thenReturn(List.of(view(bookingSaved)));
+        when(bookingMapper.convertBookingView(view(bookingSaved))).thenReturn(bookingDto);
 
         List<BookingDto> actualListOfBookingDto = bookingService
                 .getAllForBooker(user2.getId(), BookingStateDto.WAITING, page);
 
         assertThat(List.of(bookingDto), is(actualListOfBookingDto));
-        verify(userRepository, times(1)).findById(user2.getId());
+        verify(userRepository, never()).existsById(anyLong());
         verify(bookingRepository, times(1))
-                .findAllByBookerIdAndStatus(user2.getId(), BookingState.WAITING, page);
-        verify(bookingMapper, times(1)).convertBooking(bookingSaved);
+                .findAllForBooker(eq(user2.getId()), eq(BookingStateDto.WAITING), any(LocalDateTime.class), eq(page));
+        verify(bookingMapper, times(1)).convertBookingView(view(bookingSaved));
     }
 
     @Test
     void getAllForBooker_whenAllState_thenReturnListOfBookingDto() {
-        when(userRepository.findById(user2.getId())).thenReturn(Optional.of(user2));
-        when(bookingRepository.findAllByBookerId(user2.getId(), page))
-                .thenReturn(List.of(bookingSaved));
-        when(bookingMapper.convertBooking(bookingSaved)).thenReturn(bookingDto);
+        when(bookingRepository.findAllForBooker(eq(user2.getId()), eq(BookingStateDto.ALL),
+                any(LocalDateTime.class), eq(page)))
+                .thenReturn(List.of(view(bookingSaved)));
+        when(bookingMapper.convertBookingView(view(bookingSaved))).thenReturn(bookingDto);
 
         List<BookingDto> actualListOfBookingDto = bookingService
                 .getAllForBooker(user2.getId(), BookingStateDto.ALL, page);
 
         assertThat(List.of(bookingDto), is(actualListOfBookingDto));
-        verify(userRepository, times(1)).findById(user2.getId());
+        verify(userRepository, never()).existsById(anyLong());
         verify(bookingRepository, times(1))
-                .findAllByBookerId(user2.getId(), page);
-        verify(bookingMapper, times(1)).convertBooking(bookingSaved);
+                .findAllForBooker(eq(user2.getId()), eq(BookingStateDto.ALL), any(LocalDateTime.class), eq(page));
+        verify(bookingMapper, times(1)).convertBookingView(view(bookingSaved));
     }
 
     @Test
     void getAllForBooker_whenFutureState_thenReturnListOfBookingDto() {
         LocalDateTime now = LocalDateTime.now();
         bookingSaved.setStartDate(now.plusHours(1));
-        when(userRepository.findById(user2.getId())).thenReturn(Optional.of(user2));
         when(bookingRepository
-                .findAllByBookerIdAndStartDateAfter(anyLong(), any(LocalDateTime.class), any(PageRequest.class)))
-                .thenReturn(List.of(bookingSaved));
-        when(bookingMapper.convertBooking(bookingSaved)).thenReturn(bookingDto);
+                .findAllForBooker(anyLong(), eq(BookingStateDto.FUTURE), any(LocalDateTime.class),
+                        any(PageRequest.class)))
+                .thenReturn(List.of(view(bookingSaved)));
+        when(bookingMapper.convertBookingView(view(bookingSaved))).thenReturn(bookingDto);
 
         List<BookingDto> actualListOfBookingDto = bookingService
                 .getAllForBooker(user2.getId(), BookingStateDto.FUTURE, page);
 
         assertThat(List.of(bookingDto), is(actualListOfBookingDto));
-        verify(userRepository, times(1)).findById(user2.getId());
+        verify(userRepository, never()).existsById(anyLong());
         verify(bookingRepository, times(1))
-                .findAllByBookerIdAndStartDateAfter(anyLong(), any(LocalDateTime.class), any(PageRequest.class));
-        verify(bookingMapper, times(1)).convertBooking(bookingSaved);
+                .findAllForBooker(anyLong(), eq(BookingStateDto.FUTURE), any(LocalDateTime.class),
+                        any(PageRequest.class));
+        verify(bookingMapper, times(1)).convertBookingView(view(bookingSaved));
     }
 
     @Test
     void getAllForBooker_whenPastState_thenReturnListOfBookingDto() {
         LocalDateTime now = LocalDateTime.now();
         bookingSaved.setEndDate(now.minusHours(1));
-        when(userRepository.findById(user2.getId())).thenReturn(Optional.of(user2));
         when(bookingRepository
-                .findAllByBookerIdAndEndDateIsBefore(anyLong(), any(LocalDateTime.class), any(PageRequest.class)))
-                .thenReturn(List.of(bookingSaved));
-        when(bookingMapper.convertBooking(bookingSaved)).thenReturn(bookingDto);
+                .findAllForBooker(anyLong(), eq(BookingStateDto.PAST), any(LocalDateTime.class),
+                        any(PageRequest.class)))
+                .thenReturn(List.of(view(bookingSaved)));
+        when(bookingMapper.convertBookingView(view(bookingSaved))).thenReturn(bookingDto);
 
         List<BookingDto> actualListOfBookingDto = bookingService
                 .getAllForBooker(user2.getId(), BookingStateDto.PAST, page);
 
         assertThat(List.of(bookingDto), is(actualListOfBookingDto));
-        verify(userRepository, times(1)).findById(user2.getId());
+        verify(userRepository, never()).existsById(anyLong());
         verify(bookingRepository, times(1))
-                .findAllByBookerIdAndEndDateIsBefore(anyLong(), any(LocalDateTime.class), any(PageRequest.class));
-        verify(bookingMapper, times(1)).convertBooking(bookingSaved);
+                .findAllForBooker(anyLong(), eq(BookingStateDto.PAST), any(LocalDateTime.class),
+                        any(PageRequest.class));
+        verify(bookingMapper, times(1)).convertBookingView(view(bookingSaved));
     }
 
     @Test
     void getAllForBooker_whenRejectedState_thenReturnListOfBookingDto() {
         bookingSaved.setStatus(BookingState.REJECTED);
-        when(userRepository.findById(user2.getId())).thenReturn(Optional.of(user2));
         when(bookingRepository
-                .findAllByBookerIdAndStatus(user2.getId(), BookingState.REJECTED, page))
-                .thenReturn(List.of(bookingSaved));
-        when(bookingMapper.convertBooking(bookingSaved)).thenReturn(bookingDto);
+                .findAllForBooker(eq(user2.getId()), eq(BookingStateDto.REJECTED), any(LocalDateTime.class), eq(page)))
+                .thenReturn(List.of(view(bookingSaved)));
+        when(bookingMapper.convertBookingView(view(bookingSaved))).thenReturn(bookingDto);
 
         List<BookingDto> actualListOfBookingDto = bookingService
                 .getAllForBooker(user2.getId(), BookingStateDto.REJECTED, page);
 
         assertThat(List.of(bookingDto), is(actualListOfBookingDto));
-        verify(userRepository, times(1)).findById(user2.getId());
+        verify(userRepository, never()).existsById(anyLong());
         verify(bookingRepository, times(1))
-                .findAllByBookerIdAndStatus(user2.getId(), BookingState.REJECTED, page);
-        verify(bookingMapper, times(1)).convertBooking(bookingSaved);
+                .findAllForBooker(eq(user2.getId()), eq(BookingStateDto.REJECTED), any(LocalDateTime.class), eq(page));
+        verify(bookingMapper, times(1)).convertBookingView(view(bookingSaved));
     }
 
     @Test
     void getAllForBooker_whenApprovedState_thenReturnListOfBookingDto() {
         bookingSaved.setStatus(BookingState.APPROVED);
-        when(userRepository.findById(user2.getId())).thenReturn(Optional.of(user2));
         when(bookingRepository
-                .findAllByBookerIdAndStatus(user2.getId(), BookingState.APPROVED, page))
-                .thenReturn(List.of(bookingSaved));
-        when(bookingMapper.convertBooking(bookingSaved)).thenReturn(bookingDto);
+                .findAllForBooker(eq(user2.getId()), eq(BookingStateDto.APPROVED), any(LocalDateTime.class), eq(page)))
+                .thenReturn(List.of(view(bookingSaved)));
+        when(bookingMapper.convertBookingView(view(bookingSaved))).thenReturn(bookingDto);
 
         List<BookingDto> actualListOfBookingDto = bookingService
                 .getAllForBooker(user2.getId(), BookingStateDto.APPROVED, page);
 
         assertThat(List.of(bookingDto), is(actualListOfBookingDto));
-        verify(userRepository, times(1)).findById(user2.getId());
+        verify(userRepository, never()).existsById(anyLong());
         verify(bookingRepository, times(1))
-                .findAllByBookerIdAndStatus(user2.getId(), BookingState.APPROVED, page);
-        verify(bookingMapper, times(1)).convertBooking(bookingSaved);
+                .findAllForBooker(eq(user2.getId()), eq(BookingStateDto.APPROVED), any(LocalDateTime.class), eq(page));
+        verify(bookingMapper, times(1)).convertBookingView(view(bookingSaved));
     }
 
     @Test
     void getAllForBooker_whenCurrentState_thenReturnListOfBookingDto() {
-        when(userRepository.findById(user2.getId())).thenReturn(Optional.of(user2));
         when(bookingRepository
-                .findAllByBookerCurrent(anyLong(), any(LocalDateTime.class), any(PageRequest.class)))
-                .thenReturn(List.of(bookingSaved));
-        when(bookingMapper.convertBooking(bookingSaved)).thenReturn(bookingDto);
+                .findAllForBooker(anyLong(), eq(BookingStateDto.CURRENT), any(LocalDateTime.class),
+                        any(PageRequest.class)))
+                .thenReturn(List.of(view(bookingSaved)));
+        when(bookingMapper.convertBookingView(view(bookingSaved))).thenReturn(bookingDto);
 
         List<BookingDto> actualListOfBookingDto = bookingService
                 .getAllForBooker(user2.getId(), BookingStateDto.CURRENT, page);
 
         assertThat(List.of(bookingDto), is(actualListOfBookingDto));
-        verify(userRepository, times(1)).findById(user2.getId());
+        verify(userRepository, never()).existsById(anyLong());
         verify(bookingRepository, times(1))
-                .findAllByBookerCurrent(anyLong(), any(LocalDateTime.class), any(PageRequest.class));
-        verify(bookingMapper, times(1)).convertBooking(bookingSaved);
+                .findAllForBooker(anyLong(), eq(BookingStateDto.CURRENT), any(LocalDateTime.class),
+                        any(PageRequest.class));
+        verify(bookingMapper, times(1)).convertBookingView(view(bookingSaved));
     }
 
     @Test
     void getAllForBooker_whenUserNotFound_thenThrownException() {
         long wrongUserId = 66L;
-        when(userRepository.findById(wrongUserId)).thenReturn(Optional.empty());
+        when(userRepository.existsById(wrongUserId)).thenReturn(false);
 
         NotFoundException exception = assertThrows(
                 NotFoundException.class,
@@ -467,139 +609,141 @@ public class BookingServiceTest {
         );
         assertThat(exception.getMessage(), is("Пользователя с id "
                 + wrongUserId + " не существует"));
-        verify(userRepository, times(1)).findById(wrongUserId);
-        verifyNoInteractions(bookingRepository);
-        verify(bookingMapper, never()).convertBooking(any(Booking.class));
+        verify(userRepository, times(1)).existsById(wrongUserId);
+        verify(bookingRepository, times(1)).findAllForBooker(eq(wrongUserId), eq(BookingStateDto.WAITING),
+                any(LocalDateTime.class), eq(page));
+        verify(bookingMapper, never()).convertBookingView(any(BookingView.class));
     }
 
     @Test
     void getAllForOwner_whenWaitingState_thenReturnListOfBookingDto() {
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByItemOwnerIdAndStatus(user.getId(), BookingState.WAITING, page))
-                .thenReturn(List.of(bookingSaved));
-        when(bookingMapper.convertBooking(bookingSaved)).thenReturn(bookingDto);
+        when(bookingRepository.findAllForOwner(eq(user.getId()), eq(BookingStateDto.WAITING),
+                any(LocalDateTime.class), eq(page)))
+                .thenReturn(List.of(view(bookingSaved)));
+        when(bookingMapper.convertBookingView(view(bookingSaved))).thenReturn(bookingDto);
 
         List<BookingDto> actualListOfBookingDto = bookingService
                 .getAllForOwner(user.getId(), BookingStateDto.WAITING, page);
 
         assertThat(List.of(bookingDto), is(actualListOfBookingDto));
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(userRepository, never()).existsById(anyLong());
         verify(bookingRepository, times(1))
-                .findAllByItemOwnerIdAndStatus(user.getId(), BookingState.WAITING, page);
-        verify(bookingMapper, times(1)).convertBooking(bookingSaved);
+                .findAllForOwner(eq(user.getId()), eq(BookingStateDto.WAITING), any(LocalDateTime.class), eq(page));
+        verify(bookingMapper, times(1)).convertBookingView(view(bookingSaved));
     }
 
     @Test
     void getAllForOwner_whenAllState_thenReturnListOfBookingDto() {
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByItemOwnerId(user.getId(), page))
-                .thenReturn(List.of(bookingSaved));
-        when(bookingMapper.convertBooking(bookingSaved)).thenReturn(bookingDto);
+        when(bookingRepository.findAllForOwner(eq(user.getId()), eq(BookingStateDto.ALL),
+                any(LocalDateTime.class), eq(page)))
+                .thenReturn(List.of(view(bookingSaved)));
+        when(bookingMapper.convertBookingView(view(bookingSaved))).thenReturn(bookingDto);
 
         List<BookingDto> actualListOfBookingDto = bookingService
                 .getAllForOwner(user.getId(), BookingStateDto.ALL, page);
 
         assertThat(List.of(bookingDto), is(actualListOfBookingDto));
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(userRepository, never()).existsById(anyLong());
         verify(bookingRepository, times(1))
-                .findAllByItemOwnerId(user.getId(), page);
-        verify(bookingMapper, times(1)).convertBooking(bookingSaved);
+                .findAllForOwner(eq(user.getId()), eq(BookingStateDto.ALL), any(LocalDateTime.class), eq(page));
+        verify(bookingMapper, times(1)).convertBookingView(view(bookingSaved));
     }
 
     @Test
     void getAllForOwner_whenFutureState_thenReturnListOfBookingDto() {
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
         when(bookingRepository
-                .findAllByItemOwnerIdAndStartDateAfter(anyLong(), any(LocalDateTime.class), any(PageRequest.class)))
-                .thenReturn(List.of(bookingSaved));
-        when(bookingMapper.convertBooking(bookingSaved)).thenReturn(bookingDto);
+                .findAllForOwner(anyLong(), eq(BookingStateDto.FUTURE), any(LocalDateTime.class),
+                        any(PageRequest.class)))
+                .thenReturn(List.of(view(bookingSaved)));
+        when(bookingMapper.convertBookingView(view(bookingSaved))).thenReturn(bookingDto);
 
         List<BookingDto> actualListOfBookingDto = bookingService
                 .getAllForOwner(user.getId(), BookingStateDto.FUTURE, page);
 
         assertThat(List.of(bookingDto), is(actualListOfBookingDto));
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(userRepository, never()).existsById(anyLong());
         verify(bookingRepository, times(1))
-                .findAllByItemOwnerIdAndStartDateAfter(anyLong(), any(LocalDateTime.class), any(PageRequest.class));
-        verify(bookingMapper, times(1)).convertBooking(bookingSaved);
+                .findAllForOwner(anyLong(), eq(BookingStateDto.FUTURE), any(LocalDateTime.class),
+                        any(PageRequest.class));
+        verify(bookingMapper, times(1)).convertBookingView(view(bookingSaved));
     }
 
     @Test
     void getAllForOwner_whenPastState_thenReturnListOfBookingDto() {
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
         when(bookingRepository
-                .findAllByItemOwnerIdAndEndDateIsBefore(anyLong(), any(LocalDateTime.class), any(PageRequest.class)))
-                .thenReturn(List.of(bookingSaved));
-        when(bookingMapper.convertBooking(bookingSaved)).thenReturn(bookingDto);
+                .findAllForOwner(anyLong(), eq(BookingStateDto.PAST), any(LocalDateTime.class),
+                        any(PageRequest.class)))
+                .thenReturn(List.of(view(bookingSaved)));
+        when(bookingMapper.convertBookingView(view(bookingSaved))).thenReturn(bookingDto);
 
         List<BookingDto> actualListOfBookingDto = bookingService
                 .getAllForOwner(user.getId(), BookingStateDto.PAST, page);
 
         assertThat(List.of(bookingDto), is(actualListOfBookingDto));
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(userRepository, never()).existsById(anyLong());
         verify(bookingRepository, times(1))
-                .findAllByItemOwnerIdAndEndDateIsBefore(anyLong(), any(LocalDateTime.class), any(PageRequest.class));
-        verify(bookingMapper, times(1)).convertBooking(bookingSaved);
+                .findAllForOwner(anyLong(), eq(BookingStateDto.PAST), any(LocalDateTime.class),
+                        any(PageRequest.class));
+        verify(bookingMapper, times(1)).convertBookingView(view(bookingSaved));
     }
 
     @Test
     void getAllForOwner_whenRejectedState_thenReturnListOfBookingDto() {
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
         when(bookingRepository
-                .findAllByItemOwnerIdAndStatus(user.getId(), BookingState.REJECTED, page))
-                .thenReturn(List.of(bookingSaved));
-        when(bookingMapper.convertBooking(bookingSaved)).thenReturn(bookingDto);
+                .findAllForOwner(eq(user.getId()), eq(BookingStateDto.REJECTED), any(LocalDateTime.class), eq(page)))
+                .thenReturn(List.of(view(bookingSaved)));
+        when(bookingMapper.convertBookingView(view(bookingSaved))).thenReturn(bookingDto);
 
         List<BookingDto> actualListOfBookingDto = bookingService
                 .getAllForOwner(user.getId(), BookingStateDto.REJECTED, page);
 
         assertThat(List.of(bookingDto), is(actualListOfBookingDto));
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(userRepository, never()).existsById(anyLong());
         verify(bookingRepository, times(1))
-                .findAllByItemOwnerIdAndStatus(user.getId(), BookingState.REJECTED, page);
-        verify(bookingMapper, times(1)).convertBooking(bookingSaved);
+                .findAllForOwner(eq(user.getId()), eq(BookingStateDto.REJECTED), any(LocalDateTime.class), eq(page));
+        verify(bookingMapper, times(1)).convertBookingView(view(bookingSaved));
     }
 
     @Test
     void getAllForOwner_whenApprovedState_thenReturnListOfBookingDto() {
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
         when(bookingRepository
-                .findAllByItemOwnerIdAndStatus(user.getId(), BookingState.APPROVED, page))
-                .thenReturn(List.of(bookingSaved));
-        when(bookingMapper.convertBooking(bookingSaved)).thenReturn(bookingDto);
+                .findAllForOwner(eq(user.getId()), eq(BookingStateDto.APPROVED), any(LocalDateTime.class), eq(page)))
+                .thenReturn(List.of(view(bookingSaved)));
+        when(bookingMapper.convertBookingView(view(bookingSaved))).thenReturn(bookingDto);
 
         List<BookingDto> actualListOfBookingDto = bookingService
                 .getAllForOwner(user.getId(), BookingStateDto.APPROVED, page);
 
         assertThat(List.of(bookingDto), is(actualListOfBookingDto));
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(userRepository, never()).existsById(anyLong());
         verify(bookingRepository, times(1))
-                .findAllByItemOwnerIdAndStatus(user.getId(), BookingState.APPROVED, page);
-        verify(bookingMapper, times(1)).convertBooking(bookingSaved);
+                .findAllForOwner(eq(user.getId()), eq(BookingStateDto.APPROVED), any(LocalDateTime.class), eq(page));
+        verify(bookingMapper, times(1)).convertBookingView(view(bookingSaved));
     }
 
     @Test
     void getAllForOwner_whenCurrentState_thenReturnListOfBookingDto() {
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
         when(bookingRepository
-                .findAllByOwnerCurrent(anyLong(), any(LocalDateTime.class), any(PageRequest.class)))
-                .thenReturn(List.of(bookingSaved));
-        when(bookingMapper.convertBooking(bookingSaved)).thenReturn(bookingDto);
+                .findAllForOwner(anyLong(), eq(BookingStateDto.CURRENT), any(LocalDateTime.class),
+                        any(PageRequest.class)))
+                .thenReturn(List.of(view(bookingSaved)));
+        when(bookingMapper.convertBookingView(view(bookingSaved))).thenReturn(bookingDto);
 
         List<BookingDto> actualListOfBookingDto = bookingService
                 .getAllForOwner(user.getId(), BookingStateDto.CURRENT, page);
 
         assertThat(List.of(bookingDto), is(actualListOfBookingDto));
-        verify(userRepository, times(1)).findById(user.getId());
+        verify(userRepository, never()).existsById(anyLong());
         verify(bookingRepository, times(1))
-                .findAllByOwnerCurrent(anyLong(), any(LocalDateTime.class), any(PageRequest.class));
-        verify(bookingMapper, times(1)).convertBooking(bookingSaved);
+                .findAllForOwner(anyLong(), eq(BookingStateDto.CURRENT), any(LocalDateTime.class),
+                        any(PageRequest.class));
+        verify(bookingMapper, times(1)).convertBookingView(view(bookingSaved));
     }
 
     @Test
     void getAllForOwner_whenUserNotFound_thenThrownException() {
         long wrongUserId = 66L;
-        when(userRepository.findById(wrongUserId)).thenReturn(Optional.empty());
+        when(userRepository.existsById(wrongUserId)).thenReturn(false);
 
         NotFoundException exception = assertThrows(
                 NotFoundException.class,
@@ -607,8 +751,77 @@ public class BookingServiceTest {
         );
         assertThat(exception.getMessage(), is("Пользователя с id "
                 + wrongUserId + " не существует"));
-        verify(userRepository, times(1)).findById(wrongUserId);
-        verifyNoInteractions(bookingRepository);
-        verify(bookingMapper, never()).convertBooking(any(Booking.class));
+        verify(userRepository, times(1)).existsById(wrongUserId);
+        verify(bookingRepository, times(1)).findAllForOwner(eq(wrongUserId), eq(BookingStateDto.WAITING),
+                any(LocalDateTime.class), eq(page));
+        verify(bookingMapper, never()).convertBookingView(any(BookingView.class));
+    }
+
+    @Test
+    void getAllForBooker_whenSeekPage_thenReturnListOfBookingDto() {
+        SeekPage seekPage = new SeekPage(LocalDateTime.now(), 10L, 10);
+        when(bookingRepository.findAllByBookerIdAfter(eq(user2.getId()), eq(BookingStateDto.ALL),
+                any(LocalDateTime.class), eq(seekPage)))
+                .thenReturn(List.of(view(bookingSaved)));
+        when(bookingMapper.convertBookingView(view(bookingSaved))).thenReturn(bookingDto);
+
+        List<BookingDto> actualListOfBookingDto = bookingService
+                .getAllForBooker(user2.getId(), BookingStateDto.ALL, seekPage);
+
+        assertThat(List.of(bookingDto), is(actualListOfBookingDto));
+        verify(userRepository, never()).existsById(anyLong());
+        verify(bookingRepository, times(1)).findAllByBookerIdAfter(eq(user2.getId()), eq(BookingStateDto.ALL),
+                any(LocalDateTime.class), eq(seekPage));
+        verify(bookingMapper, times(1)).convertBookingView(view(bookingSaved));
+    }
+
+    @Test
+    void getAllForOwner_whenSeekPage_thenReturnListOfBookingDto() {
+        SeekPage seekPage = new SeekPage(LocalDateTime.now(), 10L, 10);
+        when(bookingRepository.findAllByItemOwnerIdAfter(eq(user.getId()), eq(BookingStateDto.WAITING),
+                any(LocalDateTime.class), eq(seekPage)))
+                .thenReturn(List.of(view(bookingSaved)));
+        when(bookingMapper.convertBookingView(view(bookingSaved))).thenReturn(bookingDto);
+
+        List<BookingDto> actualListOfBookingDto = bookingService
+                .getAllForOwner(user.getId(), BookingStateDto.WAITING, seekPage);
+
+        assertThat(List.of(bookingDto), is(actualListOfBookingDto));
+        verify(userRepository, never()).existsById(anyLong());
+        verify(bookingRepository, times(1)).findAllByItemOwnerIdAfter(eq(user.getId()),
+                eq(BookingStateDto.WAITING), any(LocalDateTime.class), eq(seekPage));
+        verify(bookingMapper, times(1)).convertBookingView(view(bookingSaved));
+    }
+
+    @Test
+    void getAllForOwner_whenSeekPageAndUserNotFound_thenThrownException() {
+        long wrongUserId = 66L;
+        SeekPage seekPage = new SeekPage(LocalDateTime.now(), 10L, 10);
+        when(userRepository.existsById(wrongUserId)).thenReturn(false);
+
+        assertThrows(NotFoundException.class,
+                () -> bookingService.getAllForOwner(wrongUserId, BookingStateDto.WAITING, seekPage));
+        verify(userRepository, times(1)).existsById(wrongUserId);
+        verify(bookingMapper, never()).convertBookingView(any(BookingView.class));
+    }
+
+    @Test
+    void getAllForBooker_whenNoBookings_thenUserCheckedAndEmptyListReturned() {
+        when(userRepository.existsById(user2.getId())).thenReturn(true);
+
+        List<BookingDto> actualListOfBookingDto = bookingService
+                .getAllForBooker(user2.getId(), BookingStateDto.ALL, page);
+
+        assertThat(List.of(), is(actualListOfBookingDto));
+        verify(bookingRepository, times(1)).findAllForBooker(eq(user2.getId()), eq(BookingStateDto.ALL),
+                any(LocalDateTime.class), eq(page));
+        verify(userRepository, times(1)).existsById(user2.getId());
+    }
+
+    private static BookingView view(Booking booking) {
+        return new BookingView(booking.getId(), booking.getStartDate(), booking.getEndDate(), booking.getStatus(),
+                booking.getItem().getId(), booking.getItem().getName(), booking.getItem().getDescription(),
+                booking.getItem().getAvailable(), null, booking.getBooker().getId(), booking.getBooker().getName(),
+                booking.getBooker().getEmail());
     }
 }
@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingStateDto;
@@ -18,7 +19,9 @@ import ru.practicum.shareit.user.UserRepository;
 
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -42,9 +45,11 @@ public class BookingTest {
     private User user2;
     private Item item;
     private Item item2;
+    private Item item3;
     private BookingCreateDto bookingCreateDto;
     private Booking booking;
     private Booking bookingApproved;
+    private Booking bookingApprovedPast;
     private final Sort sort = Sort.by("startDate").descending();
     private final Pageable page = new OffsetPage(0, 10, sort);
 
@@ -74,6 +79,13 @@ public class BookingTest {
                 .available(false)
                 .build();
         itemRepository.save(item2);
+        item3 = Item.builder()
+                .name("test item3")
+                .description("test description3")
+                .owner(user)
+                .available(true)
+                .build();
+        itemRepository.save(item3);
         bookingCreateDto = BookingCreateDto.builder()
                 .itemId(item.getId())
                 .bookerId(user2.getId())
@@ -88,15 +100,26 @@ public class BookingTest {
                 .endDate(LocalDateTime.now().plusDays(1))
                 .status(BookingState.WAITING)
                 .build();
+        // Подтвержденное бронирование не может пересекаться с бронированием booking той же вещи
         bookingApproved = Booking.builder()
                 .booker(user2)
-                .item(item)
+                .item(item3)
                 .startDate(LocalDateTime.now().minusDays(1))
                 .endDate(LocalDateTime.now().plusDays(1))
                 .status(BookingState.APPROVED)
                 .build();
+        // Для проверок пересечения; секунды без долей: база хранит микросекунды,
+        // и округленный конец не совпал бы с началом соседнего
+        bookingApprovedPast = Booking.builder()
+                .booker(user2)
+                .item(item)
+                .startDate(LocalDateTime.now().minusDays(10).truncatedTo(ChronoUnit.SECONDS))
+                .endDate(LocalDateTime.now().minusDays(5).truncatedTo(ChronoUnit.SECONDS))
+                .status(BookingState.APPROVED)
+                .build();
         bookingRepository.save(booking);
         bookingRepository.save(bookingApproved);
+        bookingRepository.save(bookingApprovedPast);
     }
 
     @Test
@@ -144,6 +167,69 @@ public class BookingTest {
                 () -> bookingService.create(bookingCreateDto));
     }
 
+    @Test
+    void create_whenOverlapsApproved_thenThrownException() {
+        bookingCreateDto.setStart(bookingApprovedPast.getStartDate().plusDays(1));
+        bookingCreateDto.setEnd(bookingApprovedPast.getEndDate().plusDays(1));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingService.create(bookingCreateDto));
+    }
+
+    @Test
+    void create_whenAdjacentToApproved_thenReturnBookingDto() {
+        bookingCreateDto.setStart(bookingApprovedPast.getEndDate());
+        bookingCreateDto.setEnd(bookingApprovedPast.getEndDate().plusDays(1));
+
+        BookingDto actualBookingDto = bookingService.create(bookingCreateDto);
+
+        assertThat(actualBookingDto.getId(), notNullValue());
+    }
+
+    @Test
+    void createAll_whenMixedEntries_thenResultPerEntryInRequestOrder() {
+        List<BookingCreateDto> bookingCreateDtos = List.of(
+                bookingCreateDto,
+                bookingCreateDto.toBuilder().itemId(66).build(),
+                bookingCreateDto.toBuilder().itemId(item2.getId()).build(),
+                bookingCreateDto.toBuilder()
+                        .start(bookingApprovedPast.getStartDate().plusDays(1))
+                        .end(bookingApprovedPast.getEndDate().plusDays(1))
+                        .build(),
+                bookingCreateDto.toBuilder()
+                        .start(bookingApprovedPast.getEndDate())
+                        .end(bookingApprovedPast.getEndDate().plusDays(1))
+                        .build());
+
+        List<BookingBatchResultDto> results = bookingService.createAll(user2.getId(), bookingCreateDtos);
+
+        assertThat(results.stream().map(BookingBatchResultDto::getStatus).collect(Collectors.toList()),
+                contains(201, 404, 400, 400, 201));
+        assertThat(results.get(0).getBooking().getId(), notNullValue());
+        assertThat(results.get(0).getBooking().getItem().getName(), is(item.getName()));
+        assertThat(results.get(4).getBooking().getStart(), is(bookingApprovedPast.getEndDate()));
+        assertThat(results.get(1).getError(), is("вещи с id 66 не существует"));
+        assertThat(bookingRepository.findAllByItemIdAndStatus(item.getId(), BookingState.WAITING), hasSize(3));
+    }
+
+    @Test
+    void createAll_whenUserNotFound_thenThrownException() {
+        assertThrows(NotFoundException.class,
+                () -> bookingService.createAll(66, List.of(bookingCreateDto)));
+    }
+
+    @Test
+    void confirmReject_whenOverlapsApproved_thenThrownException() {
+        BookingDto overlapping = bookingService.create(bookingCreateDto.toBuilder()
+                .start(booking.getStartDate().plusHours(1))
+                .end(booking.getEndDate().plusDays(1))
+                .build());
+        bookingService.confirmReject(user.getId(), booking.getId(), "true");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingService.confirmReject(user.getId(), overlapping.getId(), "true"));
+    }
+
     @Test
     void confirmReject_whenApproved_thenReturnApprovedBookingDto() {
         BookingDto actualBookingDto
@@ -164,6 +250,15 @@ public class BookingTest {
         assertThat(actualBookingDto.getStatus(), is(BookingStateDto.REJECTED));
     }
 
+    @Test
+    void confirmReject_whenApprovedTwice_thenThrownException() {
+        bookingService.confirmReject(user.getId(), booking.getId(), "true");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingService.confirmReject(user.getId(), booking.getId(), "false"));
+        assertThat(bookingRepository.findAllByItemIdAndStatus(item.getId(), BookingState.REJECTED).size(), is(0));
+    }
+
     @Test
     void confirmReject_whenBookingNotFound_thenThrownException() {
         int wrongBookingId = 66;
@@ -0,0 +1,181 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserUpdateDto;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Кэш заполняется только после фиксации транзакции, поэтому без общей транзакции теста и в отдельной базе
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:cache")
+@DirtiesContext
+public class CacheTest {
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Cache users;
+    private Cache items;
+
+    @BeforeEach
+    void setup() {
+        users = cacheManager.getCache(CacheConfig.USERS);
+        items = cacheManager.getCache(CacheConfig.ITEMS);
+        users.clear();
+        items.clear();
+    }
+
+    @Test
+    void get_whenCalledTwice_thenSecondServedFromCache() {
+        UserDto user = userService.create(UserDto.builder()
+                .name("cached")
+                .email("cached@user.email")
+                .build());
+        double hitsBefore = hits(CacheConfig.USERS);
+
+        userService.get(user.getId());
+        userService.get(user.getId());
+
+        assertThat(users.get(user.getId()), notNullValue());
+        assertThat(hits(CacheConfig.USERS), greaterThanOrEqualTo(hitsBefore + 1));
+    }
+
+    @Test
+    void get_whenUserNotFound_thenNothingCached() {
+        long wrongUserId = 66_666L;
+
+        assertThrows(NotFoundException.class, () -> userService.get(wrongUserId));
+        assertThat(users.get(wrongUserId), nullValue());
+    }
+
+    @Test
+    void update_whenUserCached_thenEvictedAndFreshValueReturned() {
+        UserDto user = userService.create(UserDto.builder()
+                .name("before update")
+                .email("before@user.email")
+                .build());
+        userService.get(user.getId());
+
+        userService.update(UserUpdateDto.builder()
+                .id(user.getId())
+                .name("after update")
+                .build());
+
+        assertThat(users.get(user.getId()), nullValue());
+        assertThat(userService.get(user.getId()).getName(), is("after update"));
+    }
+
+    @Test
+    void delete_whenUserCached_thenEvicted() {
+        UserDto user = userService.create(UserDto.builder()
+                .name("deleted")
+                .email("deleted@user.email")
+                .build());
+        userService.get(user.getId());
+
+        userService.delete(user.getId());
+
+        assertThat(users.get(user.getId()), nullValue());
+        assertThrows(NotFoundException.class, () -> userService.get(user.getId()));
+    }
+
+    @Test
+    void update_whenItemAndOwnerCached_thenOwnerRecognizedAndItemEvicted() {
+        UserDto owner = userService.create(UserDto.builder()
+                .name("owner")
+                .email("owner@cache.email")
+                .build());
+        ItemDto item = itemService.create(ItemDto.builder()
+                .name("item")
+                .description("cached item")
+                .available(true)
+                .build(), owner.getId());
+        itemService.get(item.getId(), owner.getId(), 0);
+        userService.get(owner.getId());
+
+        itemService.update(ItemDto.builder()
+                .id(item.getId())
+                .name("updated item")
+                .build(), owner.getId());
+
+        assertThat(items.get(item.getId()), nullValue());
+        assertThat(itemService.get(item.getId(), owner.getId(), 0).getName(), is("updated item"));
+    }
+
+    @Test
+    void findById_whenCachedUserChanged_thenCacheNotAffected() {
+        UserDto user = userService.create(UserDto.builder()
+                .name("snapshot")
+                .email("snapshot@user.email")
+                .build());
+        userService.get(user.getId());
+
+        User cached = userRepository.findById(user.getId()).orElseThrow();
+        cached.setName("changed without save");
+
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getName(), is("snapshot"));
+        assertThat(userService.get(user.getId()).getName(), is("snapshot"));
+    }
+
+    @Test
+    void findById_whenItemCached_thenOwnerLoadedInCurrentTransaction() {
+        UserDto owner = userService.create(UserDto.builder()
+                .name("lazy owner")
+                .email("lazy@owner.email")
+                .build());
+        ItemDto item = itemService.create(ItemDto.builder()
+                .name("item")
+                .description("cached item")
+                .available(true)
+                .build(), owner.getId());
+        itemService.get(item.getId(), owner.getId(), 0);
+        assertThat(items.get(item.getId()), notNullValue());
+
+        String ownerName = transactionTemplate.execute(status -> {
+            Item cached = itemRepository.findById(item.getId()).orElseThrow();
+            return cached.getOwner().getName();
+        });
+
+        assertThat(ownerName, is("lazy owner"));
+    }
+
+    private double hits(String cacheName) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", cacheName)
+                .tag("result", "hit")
+                .functionCounter()
+                .count();
+    }
+}
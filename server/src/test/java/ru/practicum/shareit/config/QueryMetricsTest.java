@@ -0,0 +1,89 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.constant.Constants;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Transactional
+@SpringBootTest(properties = "shareit.query-budget.statements=0")
+@AutoConfigureMockMvc
+public class QueryMetricsTest {
+    private static final String HANDLER = "ItemController.get";
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private User owner;
+    private Item item;
+
+    @BeforeEach
+    void setup() {
+        owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner@metrics.email")
+                .build());
+        item = itemRepository.save(Item.builder()
+                .name("item")
+                .description("metrics item")
+                .available(true)
+                .owner(owner)
+                .build());
+        itemRepository.flush();
+    }
+
+    @Test
+    void get_whenRequested_thenQueriesAndEntitiesRecordedPerHandler() throws Exception {
+        double before = summary("shareit.request.queries").count();
+
+        mvc.perform(get("/items/" + item.getId())
+                        .header(Constants.USER_HEADER, owner.getId()))
+                .andExpect(status().isOk());
+
+        DistributionSummary queries = summary("shareit.request.queries");
+        assertThat(queries.count(), is((long) before + 1));
+        assertThat(queries.max(), greaterThan(0.0));
+        assertThat(summary("shareit.request.entities.loaded").count(), greaterThanOrEqualTo(1L));
+        assertThat(meterRegistry.get("http.server.requests").tag("handler", HANDLER).timer().count(),
+                greaterThanOrEqualTo(1L));
+    }
+
+    @Test
+    void get_whenStatementsOverBudget_thenCounted() throws Exception {
+        double before = meterRegistry.counter("shareit.request.query.budget.exceeded", "handler", HANDLER).count();
+
+        mvc.perform(get("/items/" + item.getId())
+                        .header(Constants.USER_HEADER, owner.getId()))
+                .andExpect(status().isOk());
+
+        assertThat(meterRegistry.get("shareit.request.query.budget.exceeded").tag("handler", HANDLER).counter()
+                .count(), is(before + 1));
+    }
+
+    private DistributionSummary summary(String name) {
+        return meterRegistry.summary(name, "handler", HANDLER);
+    }
+}
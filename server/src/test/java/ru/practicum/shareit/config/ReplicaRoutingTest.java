@@ -0,0 +1,183 @@
+package ru.practicum.shareit.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+// Реплики - отдельные базы H2 со своими пользователями, третья недоступна; проверку реплик тест вызывает сам
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary",
+        "shareit.datasource.replicas.enabled=true",
+        "shareit.datasource.replicas.urls=" + ReplicaRoutingTest.REPLICA_1 + "," + ReplicaRoutingTest.REPLICA_2
+                + "," + ReplicaRoutingTest.DOWN_REPLICA,
+        "shareit.datasource.replicas.lag-query=SELECT seconds FROM replica_lag",
+        "shareit.datasource.replicas.max-lag=5s",
+        "shareit.datasource.replicas.health-check-interval=1h"})
+@DirtiesContext
+public class ReplicaRoutingTest {
+    static final String REPLICA_1 = "jdbc:h2:mem:routing-replica-1;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_2 = "jdbc:h2:mem:routing-replica-2;DB_CLOSE_DELAY=-1";
+    static final String DOWN_REPLICA = "jdbc:h2:tcp://localhost:1/mem:routing-down";
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @BeforeEach
+    void setup() throws SQLException {
+        prepareReplica(REPLICA_1, "replica 1");
+        prepareReplica(REPLICA_2, "replica 2");
+        replicaRoutingDataSource.checkReplicas();
+    }
+
+    @Test
+    void getAll_whenReadOnly_thenReplicasUsedInTurn() {
+        Set<String> sources = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            sources.add(readSource());
+        }
+
+        assertThat(sources, is(Set.of("replica 1", "replica 2")));
+    }
+
+    @Test
+    void create_whenWriting_thenPrimaryUsed() {
+        UserDto created = userService.create(UserDto.builder()
+                .name("primary")
+                .email("primary@routing.email")
+                .build());
+
+        List<String> primaryNames = transactionTemplate.execute(status -> userRepository.findAll().stream()
+                .map(User::getName)
+                .collect(Collectors.toList()));
+        assertThat(primaryNames, hasItem(created.getName()));
+        assertThat(readSource(), not("primary"));
+    }
+
+    @Test
+    void getAll_whenReplicaLags_thenOtherReplicaUsed() throws SQLException {
+        setLag(REPLICA_1, 60);
+        replicaRoutingDataSource.checkReplicas();
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(readSource(), is("replica 2"));
+        }
+    }
+
+    @Test
+    void getAll_whenAllReplicasLag_thenPrimaryUsed() throws SQLException {
+        userRepository.saveAndFlush(User.builder()
+                .name("primary")
+                .email("fallback@routing.email")
+                .build());
+        setLag(REPLICA_1, 60);
+        setLag(REPLICA_2, 60);
+        replicaRoutingDataSource.checkReplicas();
+
+        List<String> names = userService.getAll().stream()
+                .map(UserDto::getName)
+                .collect(Collectors.toList());
+
+        assertThat(names, hasItem("primary"));
+        assertThat(names, not(hasItem("replica 1")));
+    }
+
+    @Test
+    void getAll_whenReplicaDown_thenSkipped() {
+        for (int i = 0; i < 6; i++) {
+            assertThat(userService.getAll().size(), is(1));
+        }
+    }
+
+    @Test
+    void getConnection_whenCredentialsGiven_thenRoutedLikePoolConnections() throws SQLException {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(h2("jdbc:h2:mem:routing-credentials"),
+                List.of(h2(REPLICA_1), h2(REPLICA_2)), "", Duration.ofSeconds(5));
+        routing.checkReplicas();
+
+        Set<String> readUrls = new HashSet<>();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            for (int i = 0; i < 4; i++) {
+                readUrls.add(connectionUrl(routing));
+            }
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+
+        assertThat(readUrls, is(Set.of("jdbc:h2:mem:routing-replica-1", "jdbc:h2:mem:routing-replica-2")));
+        assertThat(connectionUrl(routing), is("jdbc:h2:mem:routing-credentials"));
+        routing.close();
+    }
+
+    private String readSource() {
+        List<UserDto> users = userService.getAll();
+        assertThat(users.stream().map(UserDto::getName).distinct().count(), is(1L));
+        return users.get(0).getName();
+    }
+
+    private static String connectionUrl(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection("test", "test")) {
+            // Адрес из метаданных H2 возвращает без настроек
+            return connection.getMetaData().getURL();
+        }
+    }
+
+    private static DataSource h2(String url) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(url);
+        dataSource.setUser("test");
+        dataSource.setPassword("test");
+        return dataSource;
+    }
+
+    private static void prepareReplica(String url, String name) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "test", "test");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS users "
+                    + "(user_id BIGINT PRIMARY KEY, name VARCHAR(255), email VARCHAR(512))");
+            statement.execute("MERGE INTO users KEY (user_id) VALUES (1, '" + name + "', '"
+                    + name.replace(' ', '-') + "@routing.email')");
+            statement.execute("CREATE TABLE IF NOT EXISTS replica_lag (seconds DOUBLE PRECISION)");
+            statement.execute("DELETE FROM replica_lag");
+            statement.execute("INSERT INTO replica_lag VALUES (0)");
+        }
+    }
+
+    private static void setLag(String url, double seconds) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "test", "test");
+             Statement statement = connection.createStatement()) {
+            statement.execute("UPDATE replica_lag SET seconds = " + seconds);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+
+@ExtendWith(OutputCaptureExtension.class)
+public class RequestLogFilterTest {
+    private final RequestLogFilter filter = new RequestLogFilter(0, "1m");
+
+    @Test
+    void doFilter_whenFastAndNotSampled_thenNotLogged(CapturedOutput output) throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/items/1"), new MockHttpServletResponse(),
+                new MockFilterChain());
+
+        assertThat(output.getOut(), not(containsString("uri=/items/1")));
+    }
+
+    @Test
+    void doFilter_whenServerError_thenLoggedDespiteSampling(CapturedOutput output) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(500);
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/bookings"), response, new MockFilterChain());
+
+        assertThat(output.getOut(), containsString("request method=POST uri=/bookings status=500"));
+    }
+}
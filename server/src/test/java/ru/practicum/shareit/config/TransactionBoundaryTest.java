@@ -0,0 +1,116 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.constant.Constants;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.is;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Без open-in-view и общей транзакции теста ленивые связи должны загружаться в транзакциях сервисов.
+// В отдельной базе, так как данные фиксируются
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:transaction-boundary")
+@AutoConfigureMockMvc
+@DirtiesContext
+public class TransactionBoundaryTest {
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setup() {
+        owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner" + System.nanoTime() + "@boundary.email")
+                .build());
+        booker = userRepository.save(User.builder()
+                .name("booker")
+                .email("booker" + System.nanoTime() + "@boundary.email")
+                .build());
+        item = itemRepository.save(Item.builder()
+                .name("drill")
+                .description("boundary item")
+                .available(true)
+                .owner(owner)
+                .build());
+        bookingRepository.save(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .status(BookingState.APPROVED)
+                .startDate(LocalDateTime.now().minusDays(2))
+                .endDate(LocalDateTime.now().minusDays(1))
+                .build());
+    }
+
+    @Test
+    void getAllOwn_whenOpenInViewDisabled_thenBookingsAndCommentsLoaded() throws Exception {
+        mvc.perform(post("/items/" + item.getId() + "/comment")
+                        .header(Constants.USER_HEADER, booker.getId())
+                        .contentType(APPLICATION_JSON)
+                        .content("{\"text\":\"good drill\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.authorName", is("booker")));
+
+        mvc.perform(get("/items")
+                        .header(Constants.USER_HEADER, owner.getId())
+                        .param("from", "0")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].lastBooking.bookerId").value(booker.getId()))
+                .andExpect(jsonPath("$[0].comments[0].text", is("good drill")));
+    }
+
+    @Test
+    void create_whenOpenInViewDisabled_thenBookingReturnedWithItemAndBooker() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        String body = "{\"itemId\":" + item.getId() + ",\"start\":\"" + start
+                + "\",\"end\":\"" + start.plusDays(1) + "\"}";
+        String created = mvc.perform(post("/bookings")
+                        .header(Constants.USER_HEADER, booker.getId())
+                        .contentType(APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.item.name", is("drill")))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String bookingId = created.replaceAll(".*?\"id\":(\\d+).*", "$1");
+
+        mvc.perform(get("/bookings/owner")
+                        .header(Constants.USER_HEADER, owner.getId())
+                        .param("state", "WAITING")
+                        .param("from", "0")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(Long.parseLong(bookingId)))
+                .andExpect(jsonPath("$[0].booker.name", is("booker")))
+                .andExpect(jsonPath("$[0].item.name", is("drill")));
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.page.OffsetPage;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
@@ -12,6 +13,7 @@ import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
@@ -25,7 +27,7 @@ public class CommentRepositoryTest {
     @Autowired
     private CommentRepository commentRepository;
 
-    private final Sort sort = Sort.by("created").descending();
+    private final OffsetPage page = new OffsetPage(0, 10, Sort.by("created").descending());
     private User user;
     private User user2;
     private Item item;
@@ -61,29 +63,71 @@ public class CommentRepositoryTest {
 
     @Test
     void findAllByItemId_whenSuccessful_thenReturnListOfComments() {
-        List<Comment> actualListOfComments = commentRepository.findAllByItemId(item.getId(), sort);
+        List<Comment> actualListOfComments = commentRepository.findAllByItemId(item.getId(), page);
 
         assertThat(List.of(comment), is(actualListOfComments));
     }
 
     @Test
     void findAllByItemId_whenNotFound_thenReturnEmptyList() {
-        List<Comment> actualListOfComments = commentRepository.findAllByItemId(66L, sort);
+        List<Comment> actualListOfComments = commentRepository.findAllByItemId(66L, page);
 
         assertThat(List.of(), is(actualListOfComments));
     }
 
     @Test
-    void findAllByRequestsId_whenFound_thenReturnListOfItems() {
-        List<Comment> actualListOfComments = commentRepository.findAllByItemsId(List.of(item.getId()));
+    void findAllByItemId_whenPageGiven_thenReturnNewestFirst() {
+        Comment newer = commentRepository.save(comment.toBuilder()
+                .id(null)
+                .created(comment.getCreated().plusHours(1))
+                .build());
 
-        assertThat(List.of(comment), is(actualListOfComments));
+        List<Comment> actualListOfComments = commentRepository.findAllByItemId(item.getId(),
+                new OffsetPage(0, 1, Sort.by("created").descending()));
+
+        assertThat(List.of(newer), is(actualListOfComments));
     }
 
     @Test
-    void findAllByRequestsId_whenNotFound_thenReturnEmptyList() {
-        List<Comment> actualListOfComments = commentRepository.findAllByItemsId(List.of(66L));
+    void findLastIdsByItemsId_whenMoreThanLimit_thenReturnNewestPerItem() {
+        Item item2 = itemRepository.save(item.toBuilder()
+                .id(null)
+                .name("test item2")
+                .build());
+        Comment newer = commentRepository.save(comment.toBuilder()
+                .id(null)
+                .created(comment.getCreated().plusHours(1))
+                .build());
+        Comment otherItemComment = commentRepository.save(comment.toBuilder()
+                .id(null)
+                .item(item2)
+                .build());
 
-        assertThat(List.of(), is(actualListOfComments));
+        List<Long> actualIds = commentRepository.findLastIdsByItemsId(List.of(item.getId(), item2.getId()), 1)
+                .stream()
+                .map(Number::longValue)
+                .sorted()
+                .collect(Collectors.toList());
+
+        assertThat(List.of(newer.getId(), otherItemComment.getId()), is(actualIds));
+    }
+
+    @Test
+    void findLastIdsByItemsId_whenNotFound_thenReturnEmptyList() {
+        List<Number> actualIds = commentRepository.findLastIdsByItemsId(List.of(66L), 10);
+
+        assertThat(List.of(), is(actualIds));
+    }
+
+    @Test
+    void findAllByIds_whenFound_thenReturnNewestFirst() {
+        Comment newer = commentRepository.save(comment.toBuilder()
+                .id(null)
+                .created(comment.getCreated().plusHours(1))
+                .build());
+
+        List<Comment> actualListOfComments = commentRepository.findAllByIds(List.of(comment.getId(), newer.getId()));
+
+        assertThat(List.of(newer, comment), is(actualListOfComments));
     }
 }
@@ -6,7 +6,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import ru.practicum.shareit.booking.Booking;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.exception.NotFoundException;
@@ -15,12 +16,14 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.page.OffsetPage;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -55,7 +58,6 @@ public class CommentServiceTest {
     private CommentDto commentDto;
     private CommentDto commentDtoSaved;
     private Comment comment;
-    private Booking booking;
     private UserDto userDto;
     private ItemDto itemDto;
 
@@ -121,23 +123,15 @@ public class CommentServiceTest {
                 .created(commentDto.getCreated())
                 .author(user2)
                 .build();
-        booking = Booking.builder()
-                .id(1L)
-                .startDate(LocalDateTime.now().minusDays(1))
-                .endDate(LocalDateTime.now().plusDays(1))
-                .status(BookingState.APPROVED)
-                .booker(user2)
-                .item(item)
-                .build();
     }
 
     @Test
     void create_whenSuccessful_thenReturnCommentDto() {
         when(userRepository.findById(user2.getId())).thenReturn(Optional.of(user2));
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
-        when(bookingRepository.findFirstByBookerIdAndItemIdAndStatusAndEndDateIsBefore(user2.getId(),
+        when(bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndDateIsBefore(user2.getId(),
                 item.getId(), BookingState.APPROVED, commentCreateDto.getCreated()))
-                .thenReturn(Optional.of(booking));
+                .thenReturn(true);
         when(userMapper.convertUser(user2)).thenReturn(user2Dto);
         when(itemMapper.convertItem(item)).thenReturn(itemDto);
         when(commentMapper.convertDto(commentDto)).thenReturn(comment);
@@ -150,7 +144,7 @@ public class CommentServiceTest {
         verify(userRepository, times(1)).findById(user2.getId());
         verify(itemRepository, times(1)).findById(item.getId());
         verify(bookingRepository, times(1))
-                .findFirstByBookerIdAndItemIdAndStatusAndEndDateIsBefore(user2.getId(),
+                .existsByBookerIdAndItemIdAndStatusAndEndDateIsBefore(user2.getId(),
                 item.getId(), BookingState.APPROVED, commentCreateDto.getCreated());
         verify(userMapper, times(1)).convertUser(user2);
         verify(itemMapper, times(1)).convertItem(item);
@@ -170,7 +164,7 @@ public class CommentServiceTest {
         verify(userRepository, times(1)).findById(user2.getId());
         verify(itemRepository, never()).findById(anyLong());
         verify(bookingRepository, never())
-                .findFirstByBookerIdAndItemIdAndStatusAndEndDateIsBefore(anyInt(),
+                .existsByBookerIdAndItemIdAndStatusAndEndDateIsBefore(anyInt(),
                         anyInt(), any(BookingState.class), any(LocalDateTime.class));
         verify(userMapper, never()).convertUser(any(User.class));
         verify(itemMapper, never()).convertItem(any(Item.class));
@@ -191,7 +185,7 @@ public class CommentServiceTest {
         verify(userRepository, times(1)).findById(user2.getId());
         verify(itemRepository, times(1)).findById(item.getId());
         verify(bookingRepository, never())
-                .findFirstByBookerIdAndItemIdAndStatusAndEndDateIsBefore(anyInt(),
+                .existsByBookerIdAndItemIdAndStatusAndEndDateIsBefore(anyInt(),
                         anyInt(), any(BookingState.class), any(LocalDateTime.class));
         verify(userMapper, never()).convertUser(any(User.class));
         verify(itemMapper, never()).convertItem(any(Item.class));
@@ -204,9 +198,9 @@ public class CommentServiceTest {
     void create_whenUserDidNotBookedItem_thenThrownException() {
         when(userRepository.findById(user2.getId())).thenReturn(Optional.of(user2));
         when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
-        when(bookingRepository.findFirstByBookerIdAndItemIdAndStatusAndEndDateIsBefore(user2.getId(),
+        when(bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndDateIsBefore(user2.getId(),
                 item.getId(), BookingState.APPROVED, commentCreateDto.getCreated()))
-                .thenReturn(Optional.empty());
+                .thenReturn(false);
 
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
                 () -> commentService.create(commentCreateDto));
@@ -216,7 +210,7 @@ public class CommentServiceTest {
         verify(userRepository, times(1)).findById(user2.getId());
         verify(itemRepository, times(1)).findById(item.getId());
         verify(bookingRepository, times(1))
-                .findFirstByBookerIdAndItemIdAndStatusAndEndDateIsBefore(user2.getId(),
+                .existsByBookerIdAndItemIdAndStatusAndEndDateIsBefore(user2.getId(),
                         item.getId(), BookingState.APPROVED, commentCreateDto.getCreated());
         verify(userMapper, never()).convertUser(any(User.class));
         verify(itemMapper, never()).convertItem(any(Item.class));
@@ -224,4 +218,29 @@ public class CommentServiceTest {
         verify(commentRepository, never()).save(any(Comment.class));
         verify(commentMapper, never()).convertComment(any(Comment.class));
     }
+
+    @Test
+    void getAll_whenFound_thenReturnListOfCommentDtos() {
+        Pageable page = new OffsetPage(0, 10, Sort.by("created").descending());
+        when(commentRepository.findAllByItemId(item.getId(), page)).thenReturn(List.of(comment));
+        when(commentMapper.convertComment(comment)).thenReturn(commentDtoSaved);
+
+        List<CommentDto> actualCommentDtos = commentService.getAll(item.getId(), page);
+
+        assertThat(List.of(commentDtoSaved), is(actualCommentDtos));
+        verify(commentRepository, times(1)).findAllByItemId(item.getId(), page);
+        verify(itemRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    void getAll_whenItemNotFound_thenThrownException() {
+        Pageable page = new OffsetPage(0, 10, Sort.by("created").descending());
+        when(commentRepository.findAllByItemId(item.getId(), page)).thenReturn(List.of());
+        when(itemRepository.existsById(item.getId())).thenReturn(false);
+
+        NotFoundException exception = assertThrows(NotFoundException.class,
+                () -> commentService.getAll(item.getId(), page));
+        assertThat(exception.getMessage(), is("Вещи с id " + item.getId() + " не существует"));
+        verify(commentMapper, never()).convertComment(any(Comment.class));
+    }
 }
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.page.OffsetPage;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class InMemoryItemSearchEngineTest {
+    @Mock
+    private ItemRepository itemRepository;
+    @InjectMocks
+    private InMemoryItemSearchEngine searchEngine;
+
+    private final Pageable page = new OffsetPage(0, 10, Sort.by("id"));
+    private Item drill;
+    private Item toolbox;
+    private Item hiddenDrill;
+
+    @BeforeEach
+    void setup() {
+        drill = Item.builder()
+                .id(1L)
+                .name("Drill")
+                .description("Cordless")
+                .available(true)
+                .build();
+        toolbox = Item.builder()
+                .id(2L)
+                .name("Toolbox")
+                .description("Comes with a drill bit set")
+                .available(true)
+                .build();
+        hiddenDrill = Item.builder()
+                .id(3L)
+                .name("Old drill")
+                .description("Broken")
+                .available(false)
+                .build();
+        when(itemRepository.findAll()).thenReturn(List.of(toolbox, drill, hiddenDrill));
+        searchEngine.load();
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void search_whenMatchInNameAndDescription_thenNameMatchFirstAndUnavailableSkipped() {
+        stubFindAllById();
+
+        List<Item> actualItems = searchEngine.search("DRILL", page);
+
+        assertThat(List.of(drill, toolbox), is(actualItems));
+    }
+
+    @Test
+    void search_whenTextShorterThanTrigram_thenMatchedBySubstring() {
+        stubFindAllById();
+
+        List<Item> actualItems = searchEngine.search("ox", page);
+
+        assertThat(List.of(toolbox), is(actualItems));
+    }
+
+    @Test
+    void search_whenNoTrigramMatches_thenRepositoryNotCalled() {
+        List<Item> actualItems = searchEngine.search("hammer", page);
+
+        assertThat(List.of(), is(actualItems));
+        verify(itemRepository, never()).findAllById(anyIterable());
+    }
+
+    @Test
+    void search_whenPageGiven_thenOffsetApplied() {
+        stubFindAllById();
+
+        List<Item> actualItems = searchEngine.search("drill", new OffsetPage(1, 1, Sort.by("id")));
+
+        assertThat(List.of(toolbox), is(actualItems));
+    }
+
+    @Test
+    void index_whenItemMadeUnavailable_thenRemovedFromIndex() {
+        searchEngine.index(drill.toBuilder().available(false).build());
+
+        List<Item> actualItems = searchEngine.search("cordless", page);
+
+        assertThat(List.of(), is(actualItems));
+    }
+
+    @Test
+    void index_whenTransactionRolledBack_thenPreviousVersionRestored() {
+        TransactionSynchronizationManager.initSynchronization();
+        searchEngine.index(drill.toBuilder().name("Hammer").build());
+        searchEngine.index(drill.toBuilder().name("Saw").build());
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        stubFindAllById();
+
+        assertThat(1, is(synchronizations.size()));
+        assertThat(List.of(), is(searchEngine.search("saw", page)));
+        assertThat(List.of(drill), is(searchEngine.search("cordless", page)));
+    }
+
+    private void stubFindAllById() {
+        when(itemRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            return List.of(drill, toolbox, hiddenDrill).stream()
+                    .filter(item -> contains(ids, item.getId()))
+                    .collect(Collectors.toList());
+        });
+    }
+
+    private static boolean contains(Iterable<Long> ids, long id) {
+        for (Long candidate : ids) {
+            if (candidate == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
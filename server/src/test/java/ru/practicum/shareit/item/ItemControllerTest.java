@@ -110,7 +110,7 @@ public class ItemControllerTest {
         long userId = 1;
         Sort sort = Sort.by("id");
         Pageable page = new OffsetPage(0, 10, sort);
-        when(itemService.getAll(userId, page))
+        when(itemService.getAll(userId, page, Constants.MAX_COMMENTS_LIMIT))
                 .thenReturn(List.of(itemWithBookingsAndCommentsDto));
 
         mvc.perform(get("/items?from=0&size=10")
@@ -124,7 +124,7 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.[0].description", is(itemWithBookingsAndCommentsDto.getDescription())))
                 .andExpect(jsonPath("$.[0].comments.[0].id", is(commentDto.getId().intValue())))
                 .andExpect(jsonPath("$.[0].lastBooking.id", is((int) bookingShortDto.getId())));
-        verify(itemService, times(1)).getAll(userId, page);
+        verify(itemService, times(1)).getAll(userId, page, Constants.MAX_COMMENTS_LIMIT);
     }
 
     @Test
@@ -136,12 +136,12 @@ public class ItemControllerTest {
                 .andExpect(status().is5xxServerError())
                 .andExpect(result -> assertInstanceOf(MissingRequestHeaderException.class,
                         result.getResolvedException()));
-        verify(itemService, never()).getAll(anyInt(), any(Pageable.class));
+        verify(itemService, never()).getAll(anyInt(), any(Pageable.class), anyInt());
     }
 
     @Test
     void get_whenSuccessful_thenReturnItemWithBookingsAndCommentsDto() throws Exception {
-        when(itemService.get(itemDto.getId(), userDto.getId())).thenReturn(itemWithBookingsAndCommentsDto);
+        when(itemService.get(itemDto.getId(), userDto.getId(), Constants.MAX_COMMENTS_LIMIT)).thenReturn(itemWithBookingsAndCommentsDto);
 
         mvc.perform(get("/items/" + itemDto.getId())
                         .header(Constants.USER_HEADER, userDto.getId())
@@ -154,7 +154,7 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.description", is(itemWithBookingsAndCommentsDto.getDescription())))
                 .andExpect(jsonPath("$.comments.[0].id", is(commentDto.getId().intValue())))
                 .andExpect(jsonPath("$.lastBooking.id", is((int) bookingShortDto.getId())));
-        verify(itemService, times(1)).get(itemDto.getId(), userDto.getId());
+        verify(itemService, times(1)).get(itemDto.getId(), userDto.getId(), Constants.MAX_COMMENTS_LIMIT);
     }
 
     @Test
@@ -166,7 +166,35 @@ public class ItemControllerTest {
                 .andExpect(status().is5xxServerError())
                 .andExpect(result -> assertInstanceOf(MissingRequestHeaderException.class,
                         result.getResolvedException()));
-        verify(itemService, never()).get(anyInt(), anyInt());
+        verify(itemService, never()).get(anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    void getComments_whenSuccessful_thenReturnListOfCommentDtos() throws Exception {
+        Pageable page = new OffsetPage(0, 10, Sort.by("created").descending().and(Sort.by("id").descending()));
+        when(commentService.getAll(itemDto.getId(), page)).thenReturn(List.of(commentDto));
+
+        mvc.perform(get("/items/" + itemDto.getId() + "/comments?from=0&size=10")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[0].id", is(commentDto.getId().intValue())))
+                .andExpect(jsonPath("$.[0].text", is(commentDto.getText())));
+        verify(commentService, times(1)).getAll(itemDto.getId(), page);
+    }
+
+    @Test
+    void get_whenCommentsLimitGiven_thenPassedToService() throws Exception {
+        when(itemService.get(itemDto.getId(), userDto.getId(), 2)).thenReturn(itemWithBookingsAndCommentsDto);
+
+        mvc.perform(get("/items/" + itemDto.getId() + "?commentsLimit=2")
+                        .header(Constants.USER_HEADER, userDto.getId())
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        verify(itemService, times(1)).get(itemDto.getId(), userDto.getId(), 2);
     }
 
     @Test
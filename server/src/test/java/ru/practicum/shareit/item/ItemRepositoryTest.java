@@ -101,6 +101,20 @@ public class ItemRepositoryTest {
         assertThat(List.of(item1, item2), is(actualItemList));
     }
 
+    @Test
+    void search_whenNameMatchesUnavailableItem_thenItemSkipped() {
+        itemRepository.save(Item.builder()
+                .name("unavailable test item")
+                .description("other description")
+                .available(false)
+                .owner(user2)
+                .build());
+
+        List<Item> actualItemList = itemRepository.search("unavailable", page);
+
+        assertThat(List.of(), is(actualItemList));
+    }
+
     @Test
     void search_whenNotFound_thenReturnEmptyList() {
         String text = "cccccc";
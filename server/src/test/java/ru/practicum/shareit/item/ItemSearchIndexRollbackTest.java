@@ -0,0 +1,118 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.page.OffsetPage;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+
+// Изменения вещей в откаченных транзакциях не должны оставаться в индексе поиска в памяти.
+// В отдельной базе, так как данные фиксируются
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:search-rollback", "shareit.search.engine=memory"})
+@DirtiesContext
+public class ItemSearchIndexRollbackTest {
+    @Autowired
+    private ItemSearchEngine searchEngine;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Pageable page = new OffsetPage(0, 10, Sort.by("id"));
+    private User owner;
+    private Item item;
+
+    @BeforeEach
+    void setup() {
+        owner = userRepository.save(User.builder()
+                .name("owner")
+                .email("owner" + System.nanoTime() + "@rollback.email")
+                .build());
+        item = itemRepository.save(Item.builder()
+                .name("Drill" + System.nanoTime())
+                .description("Cordless")
+                .available(true)
+                .owner(owner)
+                .build());
+    }
+
+    @Test
+    void save_whenTransactionRolledBack_thenNewItemNotIndexed() {
+        String name = "Hammer" + System.nanoTime();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            itemRepository.saveAndFlush(Item.builder()
+                    .name(name)
+                    .description("Heavy")
+                    .available(true)
+                    .owner(owner)
+                    .build());
+            status.setRollbackOnly();
+        });
+
+        assertThat(searchEngine, instanceOf(InMemoryItemSearchEngine.class));
+        assertThat(List.of(), is(searchEngine.search(name, page)));
+    }
+
+    @Test
+    void save_whenUpdateRolledBack_thenPreviousVersionFound() {
+        String name = "Saw" + System.nanoTime();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Item loaded = itemRepository.findById(item.getId()).orElseThrow();
+            loaded.setName(name);
+            itemRepository.saveAndFlush(loaded);
+            status.setRollbackOnly();
+        });
+
+        assertThat(List.of(), is(searchEngine.search(name, page)));
+        assertThat(List.of(item.getId()), is(ids(searchEngine.search(item.getName(), page))));
+    }
+
+    @Test
+    void delete_whenTransactionRolledBack_thenItemStillFound() {
+        transactionTemplate.executeWithoutResult(status -> {
+            itemRepository.deleteById(item.getId());
+            itemRepository.flush();
+            status.setRollbackOnly();
+        });
+
+        assertThat(List.of(item.getId()), is(ids(searchEngine.search(item.getName(), page))));
+    }
+
+    @Test
+    void save_whenTransactionCommitted_thenChangeIndexed() {
+        String name = "Saw" + System.nanoTime();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Item loaded = itemRepository.findById(item.getId()).orElseThrow();
+            loaded.setName(name);
+            itemRepository.save(loaded);
+        });
+
+        assertThat(List.of(item.getId()), is(ids(searchEngine.search(name, page))));
+        assertThat(List.of(), is(searchEngine.search(item.getName(), page)));
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -14,6 +14,7 @@ import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.constant.Constants;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -50,6 +51,8 @@ public class ItemServiceTest {
     private CommentRepository commentRepository;
     @Mock
     private CommentMapper commentMapper;
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -292,39 +295,51 @@ public class ItemServiceTest {
                 is("Попытка изменить вещь пользователем, не являющимся владельцом"));
     }
 
+    @Test
+    void get_whenCommentsLimitAboveMax_thenThrownException() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> itemService.get(savedItem.getId(), user.getId(), Constants.MAX_COMMENTS_LIMIT + 1));
+
+        verify(itemRepository, never()).findById(anyLong());
+        assertThat(exception.getMessage(), is("Число комментариев должно быть от 0 до "
+                + Constants.MAX_COMMENTS_LIMIT + ", получено " + (Constants.MAX_COMMENTS_LIMIT + 1)));
+    }
+
     @Test
     void get_whenSuccessful_thenReturnItemDtoWithBookingsAndComments() {
         when(itemRepository.findById(savedItem.getId())).thenReturn(Optional.of(savedItem));
         when(itemMapper.convertItemToBookingDto(savedItem)).thenReturn(itemWithBookingsAndCommentsDtoConverted);
-        when(bookingRepository.findAllByItemId(savedItem.getId())).thenReturn(List.of(booking, booking2));
+        when(bookingRepository.findLastAndNextByItemsIdAndStatus(eq(List.of(savedItem.getId())),
+                eq(BookingState.APPROVED.name()), any(LocalDateTime.class))).thenReturn(List.of(booking, booking2));
         when(bookingMapper.convertBookingToShortDto(booking)).thenReturn(bookingShortDto);
         when(bookingMapper.convertBookingToShortDto(booking2)).thenReturn(bookingShortDto2);
-        Sort sort = Sort.by("created").descending();
-        when(commentRepository.findAllByItemId(savedItem.getId(), sort)).thenReturn(List.of(comment));
+        Pageable commentsPage = new OffsetPage(0, 10, Sort.by("created").descending().and(Sort.by("id").descending()));
+        when(commentRepository.findAllByItemId(savedItem.getId(), commentsPage)).thenReturn(List.of(comment));
         when(commentMapper.convertComment(comment)).thenReturn(commentDto);
 
         ItemWithBookingsAndCommentsDto actualItemWithBookingsAndComments
-                = itemService.get(savedItem.getId(), user.getId());
+                = itemService.get(savedItem.getId(), user.getId(), 10);
 
         assertThat(itemWithBookingsAndCommentsDto, is(actualItemWithBookingsAndComments));
         verify(itemRepository, times(1)).findById(savedItem.getId());
         verify(itemMapper, times(1)).convertItemToBookingDto(savedItem);
-        verify(bookingRepository, times(1)).findAllByItemId(savedItem.getId());
+        verify(bookingRepository, times(1)).findLastAndNextByItemsIdAndStatus(eq(List.of(savedItem.getId())),
+                eq(BookingState.APPROVED.name()), any(LocalDateTime.class));
         verify(bookingMapper, times(2)).convertBookingToShortDto(any(Booking.class));
-        verify(commentRepository, times(1)).findAllByItemId(savedItem.getId(), sort);
+        verify(commentRepository, times(1)).findAllByItemId(savedItem.getId(), commentsPage);
         verify(commentMapper, times(1)).convertComment(comment);
     }
 
     @Test
     void search_whenSuccessful_thenReturnListOfItemDtos() {
         String text = "test";
-        when(itemRepository.search(text, page)).thenReturn(List.of(savedItem));
+        when(itemSearchEngine.search(text, page)).thenReturn(List.of(savedItem));
         when(itemMapper.convertListItem(List.of(savedItem))).thenReturn(List.of(savedItemDto));
 
         List<ItemDto> actualItemDtos = itemService.search(text, page);
 
         assertThat(List.of(savedItemDto), is(actualItemDtos));
-        verify(itemRepository, times(1)).search(text, page);
+        verify(itemSearchEngine, times(1)).search(text, page);
         verify(itemMapper, times(1)).convertListItem(List.of(savedItem));
     }
 
@@ -335,27 +350,31 @@ public class ItemServiceTest {
         List<ItemDto> actualItemDtos = itemService.search(text, page);
 
         assertThat(List.of(), is(actualItemDtos));
-        verify(itemRepository, never()).search(anyString(), any(PageRequest.class));
+        verify(itemSearchEngine, never()).search(anyString(), any(PageRequest.class));
         verify(itemMapper, never()).convertListItem(anyList());
     }
 
     @Test
     void getAll_whenSuccessful_thenReturnListOfItemWithBookingsAndCommentsDto() {
         when(itemRepository.findAllByOwnerId(user.getId(), page)).thenReturn(List.of(savedItem));
-        when(commentRepository.findAllByItemsId(List.of(savedItem.getId()))).thenReturn(List.of(comment));
-        when(bookingRepository.findAllByItemsId(List.of(savedItem.getId()))).thenReturn(List.of(booking, booking2));
+        when(commentRepository.findLastIdsByItemsId(List.of(savedItem.getId()), 10)).thenReturn(List.of(comment.getId()));
+        when(commentRepository.findAllByIds(List.of(comment.getId()))).thenReturn(List.of(comment));
+        when(bookingRepository.findLastAndNextByItemsIdAndStatus(eq(List.of(savedItem.getId())),
+                eq(BookingState.APPROVED.name()), any(LocalDateTime.class))).thenReturn(List.of(booking, booking2));
         when(itemMapper.convertItemToBookingDto(savedItem)).thenReturn(itemWithBookingsAndCommentsDtoConverted);
         when(bookingMapper.convertBookingToShortDto(booking)).thenReturn(bookingShortDto);
         when(bookingMapper.convertBookingToShortDto(booking2)).thenReturn(bookingShortDto2);
         when(commentMapper.convertComment(comment)).thenReturn(commentDto);
 
         List<ItemWithBookingsAndCommentsDto> actualItemWithBookingsAndCommentsDtos
-                = itemService.getAll(user.getId(), page);
+                = itemService.getAll(user.getId(), page, 10);
 
         assertThat(List.of(itemWithBookingsAndCommentsDto), is(actualItemWithBookingsAndCommentsDtos));
         verify(itemRepository, times(1)).findAllByOwnerId(user.getId(), page);
-        verify(commentRepository, times(1)).findAllByItemsId(List.of(savedItem.getId()));
-        verify(bookingRepository, times(1)).findAllByItemsId(List.of(savedItem.getId()));
+        verify(commentRepository, times(1)).findLastIdsByItemsId(List.of(savedItem.getId()), 10);
+        verify(commentRepository, times(1)).findAllByIds(List.of(comment.getId()));
+        verify(bookingRepository, times(1)).findLastAndNextByItemsIdAndStatus(eq(List.of(savedItem.getId())),
+                eq(BookingState.APPROVED.name()), any(LocalDateTime.class));
         verify(itemMapper, times(1)).convertItemToBookingDto(savedItem);
         verify(bookingMapper, times(2)).convertBookingToShortDto(any(Booking.class));
         verify(commentMapper, times(1)).convertComment(comment);
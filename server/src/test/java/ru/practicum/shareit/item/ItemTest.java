@@ -91,6 +91,8 @@ public class ItemTest {
                 .created(LocalDateTime.now())
                 .build();
         commentRepository.save(comment);
+        // Вставки выполняются при сбросе, только после него вещь попадает в индекс поиска
+        itemRepository.flush();
         itemDto = ItemDto.builder()
                 .available(true)
                 .name("test item 2")
@@ -109,7 +111,7 @@ public class ItemTest {
         OffsetPage page = new OffsetPage(0, 10, sort);
 
         List<ItemWithBookingsAndCommentsDto> actualListOfItemDtos
-                = itemService.getAll(user1.getId(), page);
+                = itemService.getAll(user1.getId(), page, 10);
 
         assertThat(actualListOfItemDtos, iterableWithSize(1));
         assertThat(actualListOfItemDtos.get(0).getComments(), contains(commentMapper.convertComment(comment)));
@@ -117,13 +119,59 @@ public class ItemTest {
         assertThat(actualListOfItemDtos.get(0).getNextBooking(), is(nullValue()));
     }
 
+    @Test
+    void getAll_whenSeveralBookings_thenReturnLatestStartedAndNearestFuture() {
+        bookingRepository.save(booking.toBuilder()
+                .id(null)
+                .startDate(LocalDateTime.now().minusDays(10))
+                .endDate(LocalDateTime.now().minusDays(9))
+                .build());
+        Booking next = bookingRepository.save(booking.toBuilder()
+                .id(null)
+                .startDate(LocalDateTime.now().plusDays(2))
+                .endDate(LocalDateTime.now().plusDays(3))
+                .build());
+        bookingRepository.save(booking.toBuilder()
+                .id(null)
+                .startDate(LocalDateTime.now().plusDays(4))
+                .endDate(LocalDateTime.now().plusDays(5))
+                .build());
+        bookingRepository.save(booking.toBuilder()
+                .id(null)
+                .status(BookingState.REJECTED)
+                .startDate(LocalDateTime.now().plusDays(1))
+                .endDate(LocalDateTime.now().plusDays(2))
+                .build());
+
+        List<ItemWithBookingsAndCommentsDto> actualListOfItemDtos
+                = itemService.getAll(user1.getId(), new OffsetPage(0, 10, Sort.by("id")), 10);
+
+        assertThat(actualListOfItemDtos.get(0).getLastBooking(), is(bookingMapper.convertBookingToShortDto(booking)));
+        assertThat(actualListOfItemDtos.get(0).getNextBooking(), is(bookingMapper.convertBookingToShortDto(next)));
+    }
+
+    @Test
+    void get_whenCommentsLimitGiven_thenReturnOnlyNewestComments() {
+        Comment newer = commentRepository.save(comment.toBuilder()
+                .id(null)
+                .created(comment.getCreated().plusMinutes(1))
+                .build());
+
+        ItemWithBookingsAndCommentsDto actualItem = itemService.get(item.getId(), user1.getId(), 1);
+        List<ItemWithBookingsAndCommentsDto> actualListOfItemDtos
+                = itemService.getAll(user1.getId(), new OffsetPage(0, 10, Sort.by("id")), 1);
+
+        assertThat(actualItem.getComments(), contains(commentMapper.convertComment(newer)));
+        assertThat(actualListOfItemDtos.get(0).getComments(), contains(commentMapper.convertComment(newer)));
+    }
+
     @Test
     void getAll_whenUserHasNoItems_thenReturnEmptyList() {
         Sort sort = Sort.by("id");
         OffsetPage page = new OffsetPage(0, 10, sort);
 
         List<ItemWithBookingsAndCommentsDto> actualListOfItemDtos
-                = itemService.getAll(user2.getId(), page);
+                = itemService.getAll(user2.getId(), page, 10);
 
         assertThat(actualListOfItemDtos, emptyIterable());
     }
@@ -175,7 +223,7 @@ public class ItemTest {
 
     @Test
     void get_whenSuccessful_thenReturnItemWithBookingAndCommentsDto() {
-        ItemWithBookingsAndCommentsDto actualItem = itemService.get(item.getId(), user1.getId());
+        ItemWithBookingsAndCommentsDto actualItem = itemService.get(item.getId(), user1.getId(), 10);
 
         assertThat(actualItem, notNullValue());
         assertThat(actualItem.getLastBooking(), is(bookingMapper.convertBookingToShortDto(booking)));
@@ -185,7 +233,7 @@ public class ItemTest {
 
     @Test
     void get_whenUserNotOwner_thenReturnItemWithoutBookings() {
-        ItemWithBookingsAndCommentsDto actualItem = itemService.get(item.getId(), user2.getId());
+        ItemWithBookingsAndCommentsDto actualItem = itemService.get(item.getId(), user2.getId(), 10);
 
         assertThat(actualItem, notNullValue());
         assertThat(actualItem.getLastBooking(), nullValue());
@@ -196,7 +244,7 @@ public class ItemTest {
     @Test
     void get_whenItemNotFound_thenThrownException() {
         assertThrows(NotFoundException.class,
-                () -> itemService.get(item.getId() + 1, user1.getId()));
+                () -> itemService.get(item.getId() + 1, user1.getId(), 10));
     }
 
     @Test
@@ -211,6 +259,38 @@ public class ItemTest {
         assertThat(actualListOfItemDtos, contains(itemMapper.convertItem(item)));
     }
 
+    @Test
+    void search_whenItemMadeUnavailable_thenNotFound() {
+        itemService.update(ItemDto.builder().id(item.getId()).available(false).build(), user1.getId());
+        Sort sort = Sort.by("id");
+        OffsetPage page = new OffsetPage(0, 10, sort);
+
+        List<ItemDto> actualListOfItemDtos = itemService.search("test", page);
+
+        assertThat(actualListOfItemDtos, iterableWithSize(0));
+    }
+
+    @Test
+    void search_whenNameAndDescriptionMatch_thenNameMatchFirst() {
+        ItemDto nameMatch = itemService.create(ItemDto.builder()
+                .available(true)
+                .name("drill")
+                .description("cordless")
+                .build(), user2.getId());
+        ItemDto descriptionMatch = itemService.create(ItemDto.builder()
+                .available(true)
+                .name("toolbox")
+                .description("with a drill bit set")
+                .build(), user2.getId());
+        itemRepository.flush();
+        Sort sort = Sort.by("id");
+        OffsetPage page = new OffsetPage(0, 10, sort);
+
+        List<ItemDto> actualListOfItemDtos = itemService.search("DRILL", page);
+
+        assertThat(actualListOfItemDtos, contains(nameMatch, descriptionMatch));
+    }
+
     @Test
     void search_whenSearchTextEmpty_thenReturnEmptyList() {
         String text = "";
@@ -89,9 +89,9 @@ public class RequestRepositoryTest {
     void save_whenNoSuchUserInDB_thenThrownException() {
         DataIntegrityViolationException exception = assertThrows(
                 DataIntegrityViolationException.class,
-                () -> itemRequestRepository.save(itemRequest3)
+                () -> itemRequestRepository.saveAndFlush(itemRequest3)
         );
-        assertThat(exception.getMessage(), containsString("could not execute statement"));
+        assertThat(exception.getMessage(), containsString("could not execute batch"));
     }
 
     @Test
@@ -130,6 +130,31 @@ public class RequestRepositoryTest {
         assertThat(actualItemRequestList, instanceOf(List.class));
     }
 
+    @Test
+    void findAllByRequesterIdIsNot_whenUserNotExists_thenReturnEmptyList() {
+        PageRequest page = PageRequest.of(0, 2, sort);
+
+        List<ItemRequest> actualItemRequestList = itemRequestRepository.findAllByRequesterIdIsNot(testUser3.getId(), page);
+
+        assertThat(actualItemRequestList, emptyIterable());
+    }
+
+    @Test
+    void findByIdForUser_whenUserExists_thenReturnOptionalOfItemRequest() {
+        Optional<ItemRequest> itemRequest = itemRequestRepository.findByIdForUser(itemRequest2.getId(),
+                testUser2.getId());
+
+        assertThat(itemRequest.isPresent(), is(true));
+        assertThat(itemRequest.get(), is(itemRequest2));
+    }
+
+    @Test
+    void findByIdForUser_whenUserNotExists_thenReturnEmptyOptional() {
+        Optional<ItemRequest> itemRequest = itemRequestRepository.findByIdForUser(itemRequest2.getId(), testUser3.getId());
+
+        assertThat(itemRequest.isEmpty(), is(true));
+    }
+
     @Test
     void findById_whenFound_thenReturnOptionalOfItemRequest() {
         Optional<ItemRequest> itemRequest = itemRequestRepository.findById(itemRequest2.getId());
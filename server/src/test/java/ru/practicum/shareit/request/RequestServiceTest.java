@@ -28,7 +28,6 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -197,7 +196,6 @@ public class RequestServiceTest {
 
     @Test
     void getAllOwn_whenThereAreItemRequestsAndNoItems_thenReturnListOfItemRequestDto() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         when(itemRequestRepository.findAllByRequesterId(1L, sort))
                 .thenReturn(List.of(itemRequest1, itemRequest2));
         when(itemRepository.findAllByRequestsId(any())).thenReturn(List.of());
@@ -210,7 +208,7 @@ public class RequestServiceTest {
 
         assertThat(actualItemRequestsDto, is(expectedItemRequestsDto));
         verify(itemRequestMapper, times(2)).convertRequest(any());
-        verify(userRepository, times(1)).findById(anyLong());
+        verify(userRepository, never()).existsById(anyLong());
         verify(itemRequestRepository, times(1)).findAllByRequesterId(1L, sort);
         verify(itemRepository, times(1)).findAllByRequestsId(any());
         verify(itemMapper, times(2)).convertListItem(any());
@@ -218,7 +216,6 @@ public class RequestServiceTest {
 
     @Test
     void getAllOwn_whenThereAreItemRequestsAndItems_thenReturnListOfItemRequestDto() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         when(itemRequestRepository.findAllByRequesterId(1L, sort))
                 .thenReturn(List.of(itemRequest1, itemRequest2));
         when(itemRepository.findAllByRequestsId(List.of(1L, 2L))).thenReturn(List.of(item1, item2));
@@ -232,7 +229,7 @@ public class RequestServiceTest {
 
         assertThat(actualItemRequestsDto, is(expectedItemRequestsDto));
         verify(itemRequestMapper, times(2)).convertRequest(any());
-        verify(userRepository, times(1)).findById(anyLong());
+        verify(userRepository, never()).existsById(anyLong());
         verify(itemRequestRepository, times(1)).findAllByRequesterId(1L, sort);
         verify(itemRepository, times(1)).findAllByRequestsId(any());
         verify(itemMapper, times(2)).convertListItem(any());
@@ -240,7 +237,7 @@ public class RequestServiceTest {
 
     @Test
     void getAllOwn_whenUserHasNoRequest_thenReturnEmptyList() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.existsById(1L)).thenReturn(true);
         when(itemRequestRepository.findAllByRequesterId(1L, sort))
                 .thenReturn(List.of());
         List<ItemRequestDto> expectedItemRequestsDto = List.of();
@@ -249,7 +246,7 @@ public class RequestServiceTest {
 
         assertThat(actualItemRequestsDto, is(expectedItemRequestsDto));
         verify(itemRequestMapper, times(0)).convertRequest(any());
-        verify(userRepository, times(1)).findById(anyLong());
+        verify(userRepository, times(1)).existsById(1L);
         verify(itemRequestRepository, times(1)).findAllByRequesterId(1L, sort);
         verify(itemRepository, times(1)).findAllByRequestsId(any());
         verify(itemMapper, times(0)).convertItem(any());
@@ -257,7 +254,7 @@ public class RequestServiceTest {
 
     @Test
     void getAllOwn_whenUserNotFound_thenThrownException() {
-        when(userRepository.findById(notExistentUser.getId())).thenReturn(Optional.empty());
+        when(userRepository.existsById(notExistentUser.getId())).thenReturn(false);
 
         NotFoundException exception = assertThrows(
                 NotFoundException.class,
@@ -265,8 +262,8 @@ public class RequestServiceTest {
         );
 
         verify(itemRequestMapper, times(0)).convertRequest(any());
-        verify(userRepository, times(1)).findById(notExistentUser.getId());
-        verify(itemRequestRepository, times(0)).findAllByRequesterId(anyInt(), any());
+        verify(userRepository, times(1)).existsById(notExistentUser.getId());
+        verify(itemRequestRepository, times(1)).findAllByRequesterId(notExistentUser.getId(), sort);
         verify(itemRepository, times(0)).findAllByRequestsId(any());
         verify(itemMapper, times(0)).convertItem(any());
         assertEquals("Пользователя с id " + notExistentUser.getId() + " не существует", exception.getMessage());
@@ -274,7 +271,6 @@ public class RequestServiceTest {
 
     @Test
     void getAll_whenThereAreRequestsWithoutItems_thenReturnListOfItemRequestDto() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
         when(itemRequestRepository.findAllByRequesterIdIsNot(2, page))
                 .thenReturn(List.of(itemRequest1, itemRequest2));
         when(itemRepository.findAllByRequestsId(List.of(1L, 2L))).thenReturn(List.of());
@@ -284,7 +280,7 @@ public class RequestServiceTest {
         List<ItemRequestDto> actualItemRequestDtos = itemRequestService.getAll(2L, page);
 
         assertThat(List.of(itemRequestDto1, itemRequestDto2), is(actualItemRequestDtos));
-        verify(userRepository, times(1)).findById(anyLong());
+        verify(userRepository, never()).existsById(anyLong());
         verify(itemRequestRepository, times(1)).findAllByRequesterIdIsNot(2L, page);
         verify(itemRepository, times(1)).findAllByRequestsId(anyList());
         verify(itemMapper, times(2)).convertListItem(anyList());
@@ -293,7 +289,6 @@ public class RequestServiceTest {
 
     @Test
     void getAll_whenThereAreRequestsWithItems_thenReturnListOfItemRequestDtoWithItems() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(user2));
         when(itemRequestRepository.findAllByRequesterIdIsNot(2L, page))
                 .thenReturn(List.of(itemRequest1, itemRequest2));
         when(itemRepository.findAllByRequestsId(List.of(1L, 2L))).thenReturn(List.of(item1, item2));
@@ -305,7 +300,7 @@ public class RequestServiceTest {
         List<ItemRequestDto> actualItemRequestDtos = itemRequestService.getAll(2L, page);
 
         assertThat(List.of(itemRequestWithItemsDto1, itemRequestWithItemsDto2), equalTo(actualItemRequestDtos));
-        verify(userRepository, times(1)).findById(anyLong());
+        verify(userRepository, never()).existsById(anyLong());
         verify(itemRequestRepository, times(1)).findAllByRequesterIdIsNot(2L, page);
         verify(itemRepository, times(1)).findAllByRequestsId(anyList());
         verify(itemMapper, times(2)).convertListItem(anyList());
@@ -314,7 +309,7 @@ public class RequestServiceTest {
 
     @Test
     void getAll_whenThereAreNoOtherRequest_thenReturnEmptyList() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.existsById(1L)).thenReturn(true);
         when(itemRequestRepository.findAllByRequesterIdIsNot(1L, page))
                 .thenReturn(List.of());
         when(itemRepository.findAllByRequestsId(List.of())).thenReturn(List.of());
@@ -322,7 +317,7 @@ public class RequestServiceTest {
         List<ItemRequestDto> actualItemRequestDtos = itemRequestService.getAll(1L, page);
 
         assertThat(List.of(), is(actualItemRequestDtos));
-        verify(userRepository, times(1)).findById(anyLong());
+        verify(userRepository, times(1)).existsById(anyLong());
         verify(itemRequestRepository, times(1)).findAllByRequesterIdIsNot(1L, page);
         verify(itemRepository, times(1)).findAllByRequestsId(anyList());
         verify(itemMapper, times(0)).convertListItem(anyList());
@@ -331,7 +326,7 @@ public class RequestServiceTest {
 
     @Test
     void getAll_whenUserNotFound_thenThrownException() {
-        when(userRepository.findById(notExistentUser.getId())).thenReturn(Optional.empty());
+        when(userRepository.existsById(notExistentUser.getId())).thenReturn(false);
 
         NotFoundException exception = assertThrows(
                 NotFoundException.class,
@@ -339,8 +334,8 @@ public class RequestServiceTest {
         );
 
         verify(itemRequestMapper, times(0)).convertRequest(any(ItemRequest.class));
-        verify(userRepository, times(1)).findById(notExistentUser.getId());
-        verify(itemRequestRepository, times(0)).findAllByRequesterIdIsNot(anyLong(), any());
+        verify(userRepository, times(1)).existsById(notExistentUser.getId());
+        verify(itemRequestRepository, times(1)).findAllByRequesterIdIsNot(notExistentUser.getId(), page);
         verify(itemRepository, times(0)).findAllByRequestsId(any());
         verify(itemMapper, times(0)).convertListItem(anyList());
         assertEquals("Пользователя с id " + notExistentUser.getId() + " не существует", exception.getMessage());
@@ -348,8 +343,7 @@ public class RequestServiceTest {
 
     @Test
     void get_whenFound_thenReturnItemRequestDto() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(itemRequestRepository.findById(1L)).thenReturn(Optional.of(itemRequest1));
+        when(itemRequestRepository.findByIdForUser(1L, 1L)).thenReturn(Optional.of(itemRequest1));
         when(itemRepository.findAllByRequestId(1L)).thenReturn(List.of(item1));
         when(itemMapper.convertListItem(List.of(item1))).thenReturn(List.of(itemDto1));
         when(itemRequestMapper.convertRequest(itemRequest1)).thenReturn(itemRequestDto1);
@@ -357,8 +351,8 @@ public class RequestServiceTest {
         ItemRequestDto actualItemRequestDto = itemRequestService.get(1L, 1);
 
         assertThat(itemRequestWithItemsDto1, equalTo(actualItemRequestDto));
-        verify(userRepository, times(1)).findById(1L);
-        verify(itemRequestRepository, times(1)).findById(1L);
+        verify(userRepository, never()).existsById(anyLong());
+        verify(itemRequestRepository, times(1)).findByIdForUser(1L, 1L);
         verify(itemRepository, times(1)).findAllByRequestId(1L);
         verify(itemMapper, times(1)).convertListItem(anyList());
         verify(itemRequestMapper, times(1)).convertRequest(itemRequest1);
@@ -366,15 +360,15 @@ public class RequestServiceTest {
 
     @Test
     void get_whenUserNotFound_thenThrownException() {
-        when(userRepository.findById(notExistentUser.getId())).thenReturn(Optional.empty());
+        when(userRepository.existsById(notExistentUser.getId())).thenReturn(false);
 
         NotFoundException exception = assertThrows(
                 NotFoundException.class,
                 () -> itemRequestService.get(notExistentUser.getId(), 1L)
         );
 
-        verify(userRepository, times(1)).findById(notExistentUser.getId());
-        verify(itemRequestRepository, times(0)).findById(1L);
+        verify(userRepository, times(1)).existsById(notExistentUser.getId());
+        verify(itemRequestRepository, times(1)).findByIdForUser(1L, notExistentUser.getId());
         verify(itemRepository, times(0)).findAllByRequestId(1L);
         verify(itemMapper, times(0)).convertListItem(anyList());
         verify(itemRequestMapper, times(0)).convertRequest(itemRequest1);
@@ -383,16 +377,16 @@ public class RequestServiceTest {
 
     @Test
     void get_whenRequestNotFound_thenThrownException() {
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(itemRequestRepository.findById(3L)).thenReturn(Optional.empty());
+        when(userRepository.existsById(user.getId())).thenReturn(true);
+        when(itemRequestRepository.findByIdForUser(3L, user.getId())).thenReturn(Optional.empty());
 
         NotFoundException exception = assertThrows(
                 NotFoundException.class,
                 () -> itemRequestService.get(user.getId(), 3L)
         );
 
-        verify(userRepository, times(1)).findById(user.getId());
-        verify(itemRequestRepository, times(1)).findById(3L);
+        verify(userRepository, times(1)).existsById(user.getId());
+        verify(itemRequestRepository, times(1)).findByIdForUser(3L, user.getId());
         verify(itemRepository, times(0)).findAllByRequestId(1L);
         verify(itemMapper, times(0)).convertListItem(anyList());
         verify(itemRequestMapper, times(0)).convertRequest(itemRequest1);